@@ -49,7 +49,8 @@ public class Environments {
       @Param(value = "senseTarget", dB = true) boolean senseTarget,
       @Param(value = "arena", dS = "empty") Arena.Prepared arena,
       @Param(value = "rescaleInput", dB = true) boolean rescaleInput,
-      @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator) {
+      @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator,
+      @Param(value = "seed", dI = 0) int seed) {
     return new NavigationEnvironment(new NavigationEnvironment.Configuration(
         initialRobotXRange,
         initialRobotYRange,
@@ -63,7 +64,8 @@ public class Environments {
         senseTarget,
         arena.arena(),
         rescaleInput,
-        randomGenerator));
+        randomGenerator,
+        seed));
   }
 
   @SuppressWarnings("unused")
@@ -77,7 +79,8 @@ public class Environments {
       @Param(value = "collisionBlock", dD = 0.005) double collisionBlock,
       @Param(value = "arena", dS = "empty") Arena.Prepared arena,
       @Param(value = "rescaleInput", dB = true) boolean rescaleInput,
-      @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator) {
+      @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator,
+      @Param(value = "seed", dI = 0) int seed) {
     return new PointNavigationEnvironment(new PointNavigationEnvironment.Configuration(
         initialRobotXRange,
         initialRobotYRange,
@@ -87,6 +90,7 @@ public class Environments {
         collisionBlock,
         arena.arena(),
         rescaleInput,
-        randomGenerator));
+        randomGenerator,
+        seed));
   }
 }
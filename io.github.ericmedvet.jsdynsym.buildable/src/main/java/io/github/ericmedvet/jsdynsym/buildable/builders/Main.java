@@ -40,6 +40,42 @@ public class Main {
     pointNavigation();
   }
 
+  public static void activationFunctions() {
+    double[] xs = new Random(1).doubles(1_000_000, -6, 6).toArray();
+    List<List<MultiLayerPerceptron.ActivationFunction>> pairs = List.of(
+        List.of(MultiLayerPerceptron.ActivationFunction.TANH, MultiLayerPerceptron.ActivationFunction.FAST_TANH),
+        List.of(
+            MultiLayerPerceptron.ActivationFunction.SIGMOID,
+            MultiLayerPerceptron.ActivationFunction.FAST_SIGMOID));
+    for (int r = 0; r < 5; r++) {
+      for (List<MultiLayerPerceptron.ActivationFunction> pair : pairs) {
+        double maxError = 0d;
+        for (double x : xs) {
+          maxError = Math.max(
+              maxError, Math.abs(pair.get(0).applyAsDouble(x) - pair.get(1).applyAsDouble(x)));
+        }
+        long[] elapsedNanos = new long[2];
+        double sink = 0d;
+        for (int i = 0; i < 2; i++) {
+          long startingNanos = System.nanoTime();
+          for (double x : xs) {
+            sink = sink + pair.get(i).applyAsDouble(x);
+          }
+          elapsedNanos[i] = System.nanoTime() - startingNanos;
+        }
+        System.out.printf(
+            "%s: %5.2fms - %s: %5.2fms - speedup: %4.2f - max error: %.2e (%.0f)%n",
+            pair.get(0),
+            elapsedNanos[0] / 1e6,
+            pair.get(1),
+            elapsedNanos[1] / 1e6,
+            (double) elapsedNanos[0] / (double) elapsedNanos[1],
+            maxError,
+            sink);
+      }
+    }
+  }
+
   @SuppressWarnings("unchecked")
   public static void pointNavVisual() {
     NamedBuilder<?> nb = NamedBuilder.fromDiscovery();
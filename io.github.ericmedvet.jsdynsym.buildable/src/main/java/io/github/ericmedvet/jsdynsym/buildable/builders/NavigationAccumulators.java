@@ -0,0 +1,73 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.core.Param;
+import io.github.ericmedvet.jsdynsym.control.Accumulator;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.geometry.Point;
+import io.github.ericmedvet.jsdynsym.control.navigation.State;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.navigation|nav|n.accumulator|acc")
+public class NavigationAccumulators {
+
+  private NavigationAccumulators() {}
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> avgD() {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.avgD();
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Point> closestRobotP(
+      @Param(value = "normalized", dB = true) boolean normalized) {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.closestRobotP(normalized);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalD() {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.finalD();
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalTimePlusD(
+      @Param(value = "epsilon", dD = .01) double epsilon) {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.finalTimePlusD(epsilon);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalTimePlusDBound(
+      @Param(value = "epsilon", dD = .01) double epsilon) {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.finalTimePlusDBound(epsilon);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> minD() {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators.minD();
+  }
+}
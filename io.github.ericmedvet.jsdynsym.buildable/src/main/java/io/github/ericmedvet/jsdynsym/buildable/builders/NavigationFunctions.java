@@ -26,13 +26,13 @@ import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.FormattedNamedFunction;
 import io.github.ericmedvet.jnb.datastructure.NamedFunction;
+import io.github.ericmedvet.jsdynsym.control.Accumulator;
 import io.github.ericmedvet.jsdynsym.control.Simulation;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
 import io.github.ericmedvet.jsdynsym.control.navigation.Arena;
+import io.github.ericmedvet.jsdynsym.control.navigation.NavigationAccumulators;
 import io.github.ericmedvet.jsdynsym.control.navigation.State;
-import java.util.Comparator;
-import java.util.SortedMap;
 import java.util.function.Function;
 
 @Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.navigation|nav|n")
@@ -47,11 +47,7 @@ public class NavigationFunctions {
           Function<X, Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>> beforeF,
       @Param(value = "format", dS = "%5.3f") String format) {
     Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f =
-        o -> o.snapshots().values().stream()
-            .mapToDouble(s ->
-                s.state().robotPosition().distance(s.state().targetPosition()))
-            .average()
-            .orElseThrow();
+        o -> Accumulator.valueOf(o, NavigationAccumulators.avgD());
     return FormattedNamedFunction.from(f, format, "avg.dist").compose(beforeF);
   }
 
@@ -61,26 +57,8 @@ public class NavigationFunctions {
       @Param(value = "of", dNPM = "f.identity()")
           Function<X, Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>> beforeF,
       @Param(value = "normalized", dB = true) boolean normalized) {
-    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Point> f = o -> {
-      Arena arena = o.snapshots()
-          .values()
-          .iterator()
-          .next()
-          .state()
-          .configuration()
-          .arena();
-      Point p = o.snapshots().values().stream()
-          .min(Comparator.comparingDouble(
-              s -> s.state().robotPosition().distance(s.state().targetPosition())))
-          .map(s -> s.state().robotPosition())
-          .orElseThrow();
-      if (normalized) {
-        return new Point(
-            new DoubleRange(0, arena.xExtent()).normalize(p.x()),
-            new DoubleRange(0, arena.yExtent()).normalize(p.y()));
-      }
-      return p;
-    };
+    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Point> f =
+        o -> Accumulator.valueOf(o, NavigationAccumulators.closestRobotP(normalized));
     return NamedFunction.from(f, "closest.pos").compose(beforeF);
   }
 
@@ -99,11 +77,8 @@ public class NavigationFunctions {
       @Param(value = "of", dNPM = "f.identity()")
           Function<X, Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>> beforeF,
       @Param(value = "format", dS = "%5.3f") String format) {
-    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f = o -> o.snapshots()
-        .get(o.snapshots().lastKey())
-        .state()
-        .robotPosition()
-        .distance(o.snapshots().get(o.snapshots().lastKey()).state().targetPosition());
+    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f =
+        o -> Accumulator.valueOf(o, NavigationAccumulators.finalD());
     return FormattedNamedFunction.from(f, format, "final.dist").compose(beforeF);
   }
 
@@ -150,16 +125,8 @@ public class NavigationFunctions {
           Function<X, Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>> beforeF,
       @Param(value = "epsilon", dD = .01) double epsilon,
       @Param(value = "format", dS = "%5.3f") String format) {
-    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f = o -> {
-      SortedMap<Double, SingleAgentTask.Step<double[], double[], State>> snapshots = o.snapshots();
-      double stopTime = snapshots.lastKey();
-      double lastDistance = snapshots
-          .get(stopTime)
-          .state()
-          .robotPosition()
-          .distance(snapshots.get(stopTime).state().targetPosition());
-      return stopTime + (lastDistance < epsilon ? 0d : lastDistance);
-    };
+    Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f =
+        o -> Accumulator.valueOf(o, NavigationAccumulators.finalTimePlusD(epsilon));
     return FormattedNamedFunction.from(f, format, "final.td").compose(beforeF);
   }
 
@@ -170,11 +137,7 @@ public class NavigationFunctions {
           Function<X, Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>> beforeF,
       @Param(value = "format", dS = "%5.3f") String format) {
     Function<Simulation.Outcome<SingleAgentTask.Step<double[], double[], State>>, Double> f =
-        o -> o.snapshots().values().stream()
-            .mapToDouble(s ->
-                s.state().robotPosition().distance(s.state().targetPosition()))
-            .min()
-            .orElseThrow();
+        o -> Accumulator.valueOf(o, NavigationAccumulators.minD());
     return FormattedNamedFunction.from(f, format, "min.dist").compose(beforeF);
   }
 
@@ -0,0 +1,53 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-buildable
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.buildable.builders;
+
+import io.github.ericmedvet.jnb.core.Cacheable;
+import io.github.ericmedvet.jnb.core.Discoverable;
+import io.github.ericmedvet.jnb.core.Param;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Watchdog;
+import io.github.ericmedvet.jsdynsym.control.navigation.State;
+
+@Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.environment|env|e.navigation|nav|n.watchdog|wd")
+public class NavigationWatchdogs {
+
+  private NavigationWatchdogs() {}
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> collisions(
+      @Param(value = "maxRate", dD = 0.5) double maxRate, @Param(value = "nOfSteps", dI = 20) int nOfSteps) {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationWatchdogs.collisions(maxRate, nOfSteps);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> nonFiniteAction() {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationWatchdogs.nonFiniteAction();
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> stagnation(
+      @Param(value = "epsilon", dD = 0.001) double epsilon, @Param(value = "nOfSteps", dI = 50) int nOfSteps) {
+    return io.github.ericmedvet.jsdynsym.control.navigation.NavigationWatchdogs.stagnation(epsilon, nOfSteps);
+  }
+}
@@ -25,8 +25,6 @@ import io.github.ericmedvet.jnb.core.Discoverable;
 import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.core.StatelessSystem;
-import io.github.ericmedvet.jsdynsym.core.composed.InStepped;
-import io.github.ericmedvet.jsdynsym.core.composed.OutStepped;
 import io.github.ericmedvet.jsdynsym.core.composed.Stepped;
 import io.github.ericmedvet.jsdynsym.core.numerical.*;
 import io.github.ericmedvet.jsdynsym.core.numerical.ann.DelayedRecurrentNetwork;
@@ -101,8 +99,7 @@ public class NumericalDynamicalSystems {
   public static <S> Builder<NumericalDynamicalSystem<Stepped.State<S>>, Stepped.State<S>> inStepped(
       @Param(value = "stepT", dD = 1) double interval,
       @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new InStepped<>(inner.apply(xVarNames, yVarNames), interval), xVarNames.size(), yVarNames.size());
+    return (xVarNames, yVarNames) -> new NumericalInStepped<>(inner.apply(xVarNames, yVarNames), interval);
   }
 
   @SuppressWarnings("unused")
@@ -147,8 +144,23 @@ public class NumericalDynamicalSystems {
   public static <S> Builder<NumericalDynamicalSystem<Stepped.State<S>>, Stepped.State<S>> outStepped(
       @Param(value = "stepT", dD = 1) double interval,
       @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new OutStepped<>(inner.apply(xVarNames, yVarNames), interval), xVarNames.size(), yVarNames.size());
+    return (xVarNames, yVarNames) -> new NumericalOutStepped<>(inner.apply(xVarNames, yVarNames), interval);
+  }
+
+  @SuppressWarnings("unused")
+  @Cacheable
+  public static Builder<RecurrentSinusoidal, RecurrentSinusoidal.State> recurrentSin(
+      @Param(value = "p", dNPM = "m.range(min=-1.57;max=1.57)") DoubleRange phaseRange,
+      @Param(value = "f", dNPM = "m.range(min=0;max=1)") DoubleRange frequencyRange,
+      @Param(value = "a", dNPM = "m.range(min=0;max=1)") DoubleRange amplitudeRange,
+      @Param(value = "b", dNPM = "m.range(min=-0.5;max=0.5)") DoubleRange biasRange,
+      @Param("dT") double dT,
+      @Param(value = "resyncSteps", dI = 100) int resyncSteps) {
+    return (xVarNames, yVarNames) -> new RecurrentSinusoidal(
+        new Sinusoidal(
+            xVarNames.size(), yVarNames.size(), phaseRange, frequencyRange, amplitudeRange, biasRange),
+        dT,
+        resyncSteps);
   }
 
   @SuppressWarnings("unused")
@@ -167,7 +179,6 @@ public class NumericalDynamicalSystems {
   public static <S> Builder<NumericalDynamicalSystem<Stepped.State<S>>, Stepped.State<S>> stepped(
       @Param(value = "stepT", dD = 0.1) double interval,
       @Param("inner") Builder<? extends NumericalDynamicalSystem<S>, S> inner) {
-    return (xVarNames, yVarNames) -> NumericalDynamicalSystem.from(
-        new Stepped<>(inner.apply(xVarNames, yVarNames), interval), xVarNames.size(), yVarNames.size());
+    return (xVarNames, yVarNames) -> new NumericalStepped<>(inner.apply(xVarNames, yVarNames), interval);
   }
 }
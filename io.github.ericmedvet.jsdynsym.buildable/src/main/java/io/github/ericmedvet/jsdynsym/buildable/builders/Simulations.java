@@ -52,6 +52,7 @@ public class Simulations {
       @Param(value = "arena", dS = "empty") Arena.Prepared arena,
       @Param(value = "rescaleInput", dB = true) boolean rescaleInput,
       @Param(value = "randomGenerator", dNPM = "m.defaultRG()") RandomGenerator randomGenerator,
+      @Param(value = "seed", dI = 0) int seed,
       @Param(value = "dT", dD = 0.1) double dT,
       @Param(value = "initialT", dD = 0) double initialT,
       @Param(value = "finalT", dD = 60) double finalT) {
@@ -69,7 +70,8 @@ public class Simulations {
             senseTarget,
             arena.arena(),
             rescaleInput,
-            randomGenerator),
+            randomGenerator,
+            seed),
         nOfSensors,
         new DoubleRange(initialT, finalT),
         dT);
@@ -23,9 +23,16 @@ package io.github.ericmedvet.jsdynsym.buildable.builders;
 import io.github.ericmedvet.jnb.core.Discoverable;
 import io.github.ericmedvet.jnb.core.Param;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Accumulator;
 import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.NumericalSingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Racing;
+import io.github.ericmedvet.jsdynsym.control.RecordingPolicy;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Watchdog;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
+import java.util.List;
 import java.util.function.Predicate;
 
 @Discoverable(prefixTemplate = "dynamicalSystem|dynSys|ds.singleAgentTask|saTask|sat")
@@ -33,13 +40,93 @@ public class SingleAgentTasks {
 
   private SingleAgentTasks() {}
 
+  @SuppressWarnings("unused")
+  public static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> accumulatingFromEnvironment(
+      @Param(value = "name", iS = "{environment.name}") String name,
+      @Param("environment") Environment<O, A, S> environment,
+      @Param("stopCondition") Predicate<S> stopCondition,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "recording", dS = "last") RecordingPolicy.Mode recordingMode,
+      @Param(value = "recordingN", dI = 1) int recordingN,
+      @Param("accumulators") List<Accumulator.Factory<SingleAgentTask.Step<O, A, S>, ?>> accumulatorFactories,
+      @Param("watchdogs") List<Watchdog.Factory<SingleAgentTask.Step<O, A, S>>> watchdogFactories) {
+    return SingleAgentTask.fromEnvironment(
+        environment,
+        environment.defaultAgentAction(),
+        stopCondition,
+        tRange,
+        dT,
+        SingleAgentTask.Options.<O, A, S>defaults()
+            .withRecordingPolicy(new RecordingPolicy(recordingMode, recordingN))
+            .withAccumulatorFactories(accumulatorFactories)
+            .withWatchdogFactory(Watchdog.Factory.all(watchdogFactories)));
+  }
+
   @SuppressWarnings("unused")
   public static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> fromEnvironment(
       @Param(value = "name", iS = "{environment.name}") String name,
       @Param("environment") Environment<O, A, S> environment,
       @Param("stopCondition") Predicate<S> stopCondition,
       @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "recording", dS = "all") RecordingPolicy.Mode recordingMode,
+      @Param(value = "recordingN", dI = 1) int recordingN) {
+    return SingleAgentTask.fromEnvironment(
+        environment,
+        environment.defaultAgentAction(),
+        stopCondition,
+        tRange,
+        dT,
+        SingleAgentTask.Options.<O, A, S>defaults()
+            .withRecordingPolicy(new RecordingPolicy(recordingMode, recordingN)));
+  }
+
+  @SuppressWarnings("unused")
+  public static <S> NumericalSingleAgentTask<S, S> numericalFromEnvironment(
+      @Param(value = "name", iS = "{environment.name}") String name,
+      @Param("environment") Environment<double[], double[], S> environment,
+      @Param("stopCondition") Predicate<S> stopCondition,
+      @Param("tRange") DoubleRange tRange,
       @Param("dT") double dT) {
-    return SingleAgentTask.fromEnvironment(environment, stopCondition, tRange, dT);
+    if (!(environment instanceof NumericalDynamicalSystem<?>)) {
+      throw new IllegalArgumentException(
+          "Environment %s is not a numerical dynamical system".formatted(environment));
+    }
+    // safe, since the state of the environment is of type S
+    @SuppressWarnings("unchecked")
+    NumericalDynamicalSystem<S> numericalEnvironment = (NumericalDynamicalSystem<S>) environment;
+    return NumericalSingleAgentTask.fromEnvironment(
+        numericalEnvironment,
+        environment.defaultAgentAction(),
+        stopCondition,
+        tRange,
+        dT);
+  }
+
+  @SuppressWarnings("unused")
+  public static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> racingFromEnvironment(
+      @Param(value = "name", iS = "{environment.name}") String name,
+      @Param("environment") Environment<O, A, S> environment,
+      @Param("stopCondition") Predicate<S> stopCondition,
+      @Param("tRange") DoubleRange tRange,
+      @Param("dT") double dT,
+      @Param(value = "recording", dS = "last") RecordingPolicy.Mode recordingMode,
+      @Param(value = "recordingN", dI = 1) int recordingN,
+      @Param("accumulators") List<Accumulator.Factory<SingleAgentTask.Step<O, A, S>, ?>> accumulatorFactories,
+      @Param("bound") Accumulator.Factory<SingleAgentTask.Step<O, A, S>, Double> boundFactory,
+      @Param(value = "threshold", dD = Double.POSITIVE_INFINITY) double threshold,
+      @Param("watchdogs") List<Watchdog.Factory<SingleAgentTask.Step<O, A, S>>> watchdogFactories) {
+    return SingleAgentTask.fromEnvironment(
+        environment,
+        environment.defaultAgentAction(),
+        stopCondition,
+        tRange,
+        dT,
+        SingleAgentTask.Options.<O, A, S>defaults()
+            .withRecordingPolicy(new RecordingPolicy(recordingMode, recordingN))
+            .withAccumulatorFactories(accumulatorFactories)
+            .withRacing(Racing.of(boundFactory, threshold))
+            .withWatchdogFactory(Watchdog.Factory.all(watchdogFactories)));
   }
 }
@@ -0,0 +1,94 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.function.Supplier;
+
+/**
+ * A value computed incrementally from the snapshots of a simulation, one snapshot at a time. Accumulators are
+ * stateful and meant to be used for a single simulation: they are obtained from a {@link Factory}, whose name
+ * identifies the accumulated value in {@link Simulation.Outcome#accumulations()}.
+ */
+public interface Accumulator<S, R> {
+
+  void add(double t, S snapshot);
+
+  R get();
+
+  interface Factory<S, R> {
+    Accumulator<S, R> build();
+
+    String name();
+
+    static <S, R> Factory<S, R> of(String name, Supplier<Accumulator<S, R>> supplier) {
+      return new Factory<>() {
+        @Override
+        public Accumulator<S, R> build() {
+          return supplier.get();
+        }
+
+        @Override
+        public String name() {
+          return name;
+        }
+
+        @Override
+        public String toString() {
+          return name;
+        }
+      };
+    }
+  }
+
+  static <S, R> R replay(SortedMap<Double, S> snapshots, Factory<S, R> factory) {
+    Accumulator<S, R> accumulator = factory.build();
+    for (Map.Entry<Double, S> entry : snapshots.entrySet()) {
+      accumulator.add(entry.getKey(), entry.getValue());
+    }
+    return accumulator.get();
+  }
+
+  /**
+   * Returns the value accumulated during the simulation, if the factory was attached to it, or replays the recorded
+   * snapshots otherwise. Replaying is done only if all the steps were recorded and the simulation was not stopped
+   * early, since replaying a part of them would silently give a different value.
+   */
+  @SuppressWarnings("unchecked")
+  static <S, R> R valueOf(Simulation.Outcome<S> outcome, Factory<S, R> factory) {
+    Object value = outcome.accumulations().get(factory.name());
+    if (value != null) {
+      return (R) value;
+    }
+    if (outcome.snapshots().isEmpty()) {
+      return replay(outcome.snapshots(), factory);
+    }
+    if (!outcome.recordingPolicy().mode().equals(RecordingPolicy.Mode.ALL)) {
+      throw new IllegalArgumentException("Cannot compute %s: not accumulated and snapshots recorded with %s"
+          .formatted(factory.name(), outcome.recordingPolicy()));
+    }
+    if (outcome.truncated()) {
+      throw new IllegalArgumentException("Cannot compute %s: not accumulated and simulation stopped by %s"
+          .formatted(factory.name(), outcome.stopReason().orElseThrow()));
+    }
+    return replay(outcome.snapshots(), factory);
+  }
+}
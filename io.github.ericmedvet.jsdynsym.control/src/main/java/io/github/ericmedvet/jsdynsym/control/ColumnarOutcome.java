@@ -0,0 +1,299 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask.Step;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * An outcome of a numerical single agent task whose steps are stored in primitive columns. {@link #snapshots()} is a
+ * read-only view over the columns: {@link Step} records, and their observation and action arrays, are built only when
+ * accessed. Which steps are stored follows a {@link RecordingPolicy}, exactly as with {@link RecordingPolicy.Recorder}:
+ * with {@link RecordingPolicy.Mode#LAST} and {@link RecordingPolicy.Mode#LAST_N}, rows are reused circularly and put
+ * back in time order when the simulation ends.
+ */
+public final class ColumnarOutcome<S> implements Simulation.Outcome<Step<double[], double[], S>> {
+
+  private final int nOfObservations;
+  private final int nOfActions;
+  private final double[] ts;
+  private final double[] observations;
+  private final double[] actions;
+  private final Object[] states;
+  private final RecordingPolicy recordingPolicy;
+  private int size;
+  private int nOfAdded;
+  private Map<String, Object> accumulations;
+  private String stopReason;
+
+  ColumnarOutcome(int nOfSteps, RecordingPolicy recordingPolicy, int nOfObservations, int nOfActions) {
+    this.nOfObservations = nOfObservations;
+    this.nOfActions = nOfActions;
+    this.recordingPolicy = recordingPolicy;
+    int capacity = switch (recordingPolicy.mode()) {
+      case ALL -> nOfSteps;
+      // every k-th step, plus a row for the last step
+      case EVERY_K -> (nOfSteps + recordingPolicy.n() - 1) / recordingPolicy.n() + 1;
+      case LAST, LAST_N -> Math.min(recordingPolicy.n(), nOfSteps);
+    };
+    ts = new double[capacity];
+    observations = new double[capacity * nOfObservations];
+    actions = new double[capacity * nOfActions];
+    states = new Object[capacity];
+    accumulations = Map.of();
+  }
+
+  void add(double t, double[] observation, double[] action, S state) {
+    int i = switch (recordingPolicy.mode()) {
+      case ALL, EVERY_K -> size;
+      case LAST, LAST_N -> nOfAdded % ts.length;
+    };
+    ts[i] = t;
+    System.arraycopy(observation, 0, observations, i * nOfObservations, nOfObservations);
+    System.arraycopy(action, 0, actions, i * nOfActions, nOfActions);
+    states[i] = state;
+    switch (recordingPolicy.mode()) {
+      case ALL -> size = size + 1;
+      // a step which is not a k-th one stays in the row after the kept ones, until overwritten
+      case EVERY_K -> size = nOfAdded % recordingPolicy.n() == 0 ? size + 1 : size;
+      case LAST, LAST_N -> size = Math.min(nOfAdded + 1, ts.length);
+    }
+    nOfAdded = nOfAdded + 1;
+  }
+
+  void end(Map<String, Object> accumulations, String stopReason) {
+    this.accumulations = accumulations;
+    this.stopReason = stopReason;
+    if (recordingPolicy.mode().equals(RecordingPolicy.Mode.EVERY_K)
+        && nOfAdded > 0
+        && (nOfAdded - 1) % recordingPolicy.n() != 0) {
+      size = size + 1;
+    }
+    if ((recordingPolicy.mode().equals(RecordingPolicy.Mode.LAST)
+            || recordingPolicy.mode().equals(RecordingPolicy.Mode.LAST_N))
+        && nOfAdded > ts.length) {
+      int first = nOfAdded % ts.length;
+      rotate(ts, first, 1);
+      rotate(observations, first, nOfObservations);
+      rotate(actions, first, nOfActions);
+      rotate(states, first, 1);
+    }
+  }
+
+  private static void rotate(double[] columns, int firstRow, int rowLength) {
+    double[] head = Arrays.copyOf(columns, firstRow * rowLength);
+    System.arraycopy(columns, head.length, columns, 0, columns.length - head.length);
+    System.arraycopy(head, 0, columns, columns.length - head.length, head.length);
+  }
+
+  private static void rotate(Object[] columns, int firstRow, int rowLength) {
+    Object[] head = Arrays.copyOf(columns, firstRow * rowLength);
+    System.arraycopy(columns, head.length, columns, 0, columns.length - head.length);
+    System.arraycopy(head, 0, columns, columns.length - head.length, head.length);
+  }
+
+  @Override
+  public Map<String, Object> accumulations() {
+    return accumulations;
+  }
+
+  int nOfAdded() {
+    return nOfAdded;
+  }
+
+  public double action(int i, int j) {
+    return actions[i * nOfActions + j];
+  }
+
+  public int nOfActions() {
+    return nOfActions;
+  }
+
+  public int nOfObservations() {
+    return nOfObservations;
+  }
+
+  public double observation(int i, int j) {
+    return observations[i * nOfObservations + j];
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public SortedMap<Double, Step<double[], double[], S>> snapshots() {
+    return new View(0, size);
+  }
+
+  @Override
+  public RecordingPolicy recordingPolicy() {
+    return recordingPolicy;
+  }
+
+  @Override
+  public Optional<String> stopReason() {
+    return Optional.ofNullable(stopReason);
+  }
+
+  @SuppressWarnings("unchecked")
+  public S state(int i) {
+    return (S) states[i];
+  }
+
+  public Step<double[], double[], S> step(int i) {
+    return new Step<>(
+        Arrays.copyOfRange(observations, i * nOfObservations, (i + 1) * nOfObservations),
+        Arrays.copyOfRange(actions, i * nOfActions, (i + 1) * nOfActions),
+        state(i));
+  }
+
+  public double t(int i) {
+    return ts[i];
+  }
+
+  private int lowerBound(double t, int from, int to) {
+    while (from < to) {
+      int mid = (from + to) >>> 1;
+      if (ts[mid] < t) {
+        from = mid + 1;
+      } else {
+        to = mid;
+      }
+    }
+    return from;
+  }
+
+  private class View extends AbstractMap<Double, Step<double[], double[], S>>
+      implements SortedMap<Double, Step<double[], double[], S>> {
+    private final int from;
+    private final int to;
+
+    private View(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Comparator<? super Double> comparator() {
+      return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Set<Entry<Double, Step<double[], double[], S>>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<Double, Step<double[], double[], S>>> iterator() {
+          return new Iterator<>() {
+            private int i = from;
+
+            @Override
+            public boolean hasNext() {
+              return i < to;
+            }
+
+            @Override
+            public Entry<Double, Step<double[], double[], S>> next() {
+              if (i >= to) {
+                throw new NoSuchElementException();
+              }
+              Entry<Double, Step<double[], double[], S>> entry = new SimpleImmutableEntry<>(ts[i], step(i));
+              i = i + 1;
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return to - from;
+        }
+      };
+    }
+
+    @Override
+    public Double firstKey() {
+      if (from >= to) {
+        throw new NoSuchElementException();
+      }
+      return ts[from];
+    }
+
+    @Override
+    public Step<double[], double[], S> get(Object key) {
+      int i = indexOf(key);
+      return i < 0 ? null : step(i);
+    }
+
+    @Override
+    public SortedMap<Double, Step<double[], double[], S>> headMap(Double toKey) {
+      return new View(from, lowerBound(toKey, from, to));
+    }
+
+    private int indexOf(Object key) {
+      if (!(key instanceof Double t)) {
+        return -1;
+      }
+      int i = lowerBound(t, from, to);
+      return (i < to && ts[i] == t) ? i : -1;
+    }
+
+    @Override
+    public Double lastKey() {
+      if (from >= to) {
+        throw new NoSuchElementException();
+      }
+      return ts[to - 1];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+
+    @Override
+    public SortedMap<Double, Step<double[], double[], S>> subMap(Double fromKey, Double toKey) {
+      if (fromKey > toKey) {
+        throw new IllegalArgumentException("Invalid range: %f > %f".formatted(fromKey, toKey));
+      }
+      int subFrom = lowerBound(fromKey, from, to);
+      return new View(subFrom, lowerBound(toKey, subFrom, to));
+    }
+
+    @Override
+    public SortedMap<Double, Step<double[], double[], S>> tailMap(Double fromKey) {
+      return new View(lowerBound(fromKey, from, to), to);
+    }
+  }
+}
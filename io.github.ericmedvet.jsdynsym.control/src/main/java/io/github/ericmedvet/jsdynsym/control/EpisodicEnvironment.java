@@ -0,0 +1,44 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * An environment whose randomness can be tied to an episode index: {@link #reset(long)} draws the initial conditions
+ * from a generator that depends only on the environment seed and on the index, so that the same episode is replicated
+ * regardless of which environment instance, or thread, runs it.
+ */
+public interface EpisodicEnvironment<O, A, S> extends Environment<O, A, S> {
+
+  void reset(long episodeIndex);
+
+  /** Returns an independent generator determined by {@code seed} and {@code episodeIndex} only. */
+  static RandomGenerator.SplittableGenerator episodeGenerator(long seed, long episodeIndex) {
+    return new SplittableRandom(mix(mix(seed) + 0x9e3779b97f4a7c15L * (episodeIndex + 1)));
+  }
+
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,31 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+/** A simulation whose outcome is determined by the simulated subject and by an episode index. */
+public interface EpisodicSimulation<T, S, O extends Simulation.Outcome<S>> extends Simulation<T, S, O> {
+
+  O simulate(T t, long episodeIndex);
+
+  @Override
+  default O simulate(T t) {
+    return simulate(t, 0);
+  }
+}
@@ -0,0 +1,170 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A {@link SingleAgentTask} for numerical environments and agents that reuses the observation and action buffers
+ * across steps, through {@link NumericalDynamicalSystem#step(double, double[], double[])}, and records each step in the
+ * primitive columns of a {@link ColumnarOutcome}. Environment states are recorded through a projection, which may be
+ * the identity. {@link SingleAgentTask.Options} are honored as in {@link SingleAgentTask#fromEnvironment(
+ * io.github.ericmedvet.jsdynsym.core.DynamicalSystem, Object, Predicate, DoubleRange, double, Options)}: when they
+ * accumulate values or may stop episodes early, a {@link Step} with copies of the buffers is built at each step.
+ */
+public class NumericalSingleAgentTask<S, P>
+    implements SingleAgentTask<NumericalDynamicalSystem<?>, double[], double[], P> {
+
+  private final NumericalDynamicalSystem<S> environment;
+  private final double[] initialAction;
+  private final Predicate<S> stopCondition;
+  private final Function<? super S, ? extends P> stateProjection;
+  private final DoubleRange tRange;
+  private final double dT;
+  private final Options<double[], double[], P> options;
+  private final int nOfSteps;
+
+  public NumericalSingleAgentTask(
+      NumericalDynamicalSystem<S> environment,
+      double[] initialAction,
+      Predicate<S> stopCondition,
+      Function<? super S, ? extends P> stateProjection,
+      DoubleRange tRange,
+      double dT) {
+    this(environment, initialAction, stopCondition, stateProjection, tRange, dT, Options.defaults());
+  }
+
+  public NumericalSingleAgentTask(
+      NumericalDynamicalSystem<S> environment,
+      double[] initialAction,
+      Predicate<S> stopCondition,
+      Function<? super S, ? extends P> stateProjection,
+      DoubleRange tRange,
+      double dT,
+      Options<double[], double[], P> options) {
+    if (initialAction.length != environment.nOfInputs()) {
+      throw new IllegalArgumentException("Initial action has wrong number of elements: %d found, %d expected"
+          .formatted(initialAction.length, environment.nOfInputs()));
+    }
+    this.environment = environment;
+    this.initialAction = initialAction;
+    this.stopCondition = stopCondition;
+    this.stateProjection = stateProjection;
+    this.tRange = tRange;
+    this.dT = dT;
+    this.options = options;
+    int n = 0;
+    for (double t = tRange.min(); t <= tRange.max(); t = t + dT) {
+      n = n + 1;
+    }
+    nOfSteps = n;
+  }
+
+  public static <S> NumericalSingleAgentTask<S, S> fromEnvironment(
+      NumericalDynamicalSystem<S> environment,
+      double[] initialAction,
+      Predicate<S> stopCondition,
+      DoubleRange tRange,
+      double dT,
+      Options<double[], double[], S> options) {
+    return new NumericalSingleAgentTask<>(environment, initialAction, stopCondition, s -> s, tRange, dT, options);
+  }
+
+  public static <S> NumericalSingleAgentTask<S, S> fromEnvironment(
+      NumericalDynamicalSystem<S> environment,
+      double[] initialAction,
+      Predicate<S> stopCondition,
+      DoubleRange tRange,
+      double dT) {
+    return fromEnvironment(environment, initialAction, stopCondition, tRange, dT, Options.defaults());
+  }
+
+  public static <S, E extends NumericalDynamicalSystem<S> & Environment<double[], double[], S>>
+      NumericalSingleAgentTask<S, S> fromEnvironment(
+          E environment, Predicate<S> stopCondition, DoubleRange tRange, double dT) {
+    return fromEnvironment(environment, environment.defaultAgentAction(), stopCondition, tRange, dT);
+  }
+
+  @Override
+  public ColumnarOutcome<P> simulate(NumericalDynamicalSystem<?> agent) {
+    agent.checkDimension(environment.nOfOutputs(), environment.nOfInputs());
+    environment.reset();
+    agent.reset();
+    ColumnarOutcome<P> outcome = new ColumnarOutcome<>(
+        nOfSteps, options.recordingPolicy(), environment.nOfOutputs(), environment.nOfInputs());
+    boolean onlyRecord = options.onlyRecord();
+    List<? extends Accumulator<Step<double[], double[], P>, ?>> accumulators = options.accumulatorFactories().stream()
+        .map(Accumulator.Factory::build)
+        .toList();
+    Racing.Racer<Step<double[], double[], P>> racer = options.racing().racer();
+    Watchdog<Step<double[], double[], P>> watchdog = options.watchdogFactory().build();
+    String stopReason = null;
+    double[] observation = new double[environment.nOfOutputs()];
+    double[] action = new double[environment.nOfInputs()];
+    double t = tRange.min();
+    environment.step(t, initialAction, observation);
+    while (t <= tRange.max() && !stopCondition.test(environment.getState())) {
+      if (Thread.currentThread().isInterrupted()) {
+        stopReason = CANCELLED_STOP_REASON;
+        break;
+      }
+      agent.step(t, observation, action);
+      environment.step(t, action, observation);
+      P state = stateProjection.apply(environment.getState());
+      outcome.add(t, observation, action, state);
+      if (!onlyRecord) {
+        Step<double[], double[], P> step = new Step<>(observation.clone(), action.clone(), state);
+        for (Accumulator<Step<double[], double[], P>, ?> accumulator : accumulators) {
+          accumulator.add(t, step);
+        }
+        if (racer.isHopeless(t, step)) {
+          stopReason = Racing.STOP_REASON;
+          break;
+        }
+        Optional<String> reason = watchdog.check(t, step);
+        if (reason.isPresent()) {
+          stopReason = reason.get();
+          if (!stopCondition.test(environment.getState())) {
+            SingleAgentTask.chargeUntilEnd(accumulators, step, t, tRange, dT);
+          }
+          break;
+        }
+      }
+      t = t + dT;
+    }
+    // accumulators have nothing to give if the stop condition held before the first step
+    Map<String, Object> accumulations = new LinkedHashMap<>();
+    if (outcome.nOfAdded() > 0) {
+      for (int i = 0; i < accumulators.size(); i = i + 1) {
+        accumulations.put(options.accumulatorFactories().get(i).name(), accumulators.get(i).get());
+      }
+    }
+    outcome.end(Collections.unmodifiableMap(accumulations), stopReason);
+    return outcome;
+  }
+}
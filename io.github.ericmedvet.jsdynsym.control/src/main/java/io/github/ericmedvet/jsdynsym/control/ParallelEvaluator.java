@@ -0,0 +1,223 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Simulates many agents concurrently on an executor. Simulations, and hence the environments they wrap, are never
+ * shared between concurrently running episodes: each episode takes an idle simulation from an internal pool, or builds
+ * a new one with the supplier, and gives it back when done. At most one simulation per concurrently running episode is
+ * hence built. Agents are used as they are, so the same agent instance should not appear twice in one evaluation.
+ * When simulations are {@link EpisodicSimulation}s, the i-th agent is simulated as episode
+ * {@code firstEpisodeIndex + i}: outcomes then do not depend on which pooled simulation, or thread, runs an episode.
+ */
+public class ParallelEvaluator<T, S, O extends Simulation.Outcome<S>> implements AutoCloseable {
+
+  private final Supplier<? extends Simulation<T, S, O>> simulationSupplier;
+  private final ExecutorService executorService;
+  private final Semaphore permits;
+  private final boolean ownsExecutorService;
+  private final ConcurrentLinkedDeque<Simulation<T, S, O>> idleSimulations;
+
+  private ParallelEvaluator(
+      Supplier<? extends Simulation<T, S, O>> simulationSupplier,
+      ExecutorService executorService,
+      int maxConcurrency,
+      boolean ownsExecutorService) {
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("Max concurrency must be positive: %d found".formatted(maxConcurrency));
+    }
+    this.simulationSupplier = simulationSupplier;
+    this.executorService = executorService;
+    permits = maxConcurrency < Integer.MAX_VALUE ? new Semaphore(maxConcurrency) : null;
+    this.ownsExecutorService = ownsExecutorService;
+    idleSimulations = new ConcurrentLinkedDeque<>();
+  }
+
+  public ParallelEvaluator(
+      Supplier<? extends Simulation<T, S, O>> simulationSupplier,
+      ExecutorService executorService,
+      int maxConcurrency) {
+    this(simulationSupplier, executorService, maxConcurrency, false);
+  }
+
+  public ParallelEvaluator(
+      Supplier<? extends Simulation<T, S, O>> simulationSupplier, ExecutorService executorService) {
+    this(simulationSupplier, executorService, Integer.MAX_VALUE);
+  }
+
+  public ParallelEvaluator(Supplier<? extends Simulation<T, S, O>> simulationSupplier) {
+    this(simulationSupplier, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Runs each episode on its own virtual thread, with at most {@code maxConcurrency} episodes in flight: the others
+   * wait, without holding a simulation, on a semaphore. Suited for agents or environments that block.
+   */
+  public static <T, S, O extends Simulation.Outcome<S>> ParallelEvaluator<T, S, O> withVirtualThreads(
+      Supplier<? extends Simulation<T, S, O>> simulationSupplier, int maxConcurrency) {
+    return new ParallelEvaluator<>(
+        simulationSupplier, Executors.newVirtualThreadPerTaskExecutor(), maxConcurrency, true);
+  }
+
+  public static final class Evaluation<O> {
+    private final List<Future<O>> futures;
+
+    private Evaluation(List<Future<O>> futures) {
+      this.futures = futures;
+    }
+
+    /**
+     * Cancels the episodes not yet done. Running episodes are interrupted: simulations stop at their next step, with
+     * {@link Simulation#CANCELLED_STOP_REASON} as stop reason, and become available again for later evaluations.
+     */
+    public void cancel() {
+      futures.forEach(f -> f.cancel(true));
+    }
+
+    public List<O> get() {
+      List<O> outcomes = new ArrayList<>(futures.size());
+      try {
+        for (Future<O> future : futures) {
+          outcomes.add(future.get());
+        }
+      } catch (InterruptedException e) {
+        cancel();
+        Thread.currentThread().interrupt();
+        throw new RuntimeException("Interrupted while waiting for simulation outcomes", e);
+      } catch (ExecutionException e) {
+        cancel();
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+          throw runtimeException;
+        }
+        throw new RuntimeException(e.getCause());
+      }
+      return outcomes;
+    }
+
+    public boolean isDone() {
+      return futures.stream().allMatch(Future::isDone);
+    }
+  }
+
+  public static <C extends DynamicalSystem<O, A, ?>, O, A, S>
+      ParallelEvaluator<C, SingleAgentTask.Step<O, A, S>, Simulation.Outcome<SingleAgentTask.Step<O, A, S>>>
+          fromEnvironment(
+              Supplier<? extends Environment<O, A, S>> environmentSupplier,
+              Predicate<S> stopCondition,
+              DoubleRange tRange,
+              double dT,
+              SingleAgentTask.Options<O, A, S> options,
+              ExecutorService executorService) {
+    return new ParallelEvaluator<>(
+        () -> {
+          Environment<O, A, S> environment = environmentSupplier.get();
+          return SingleAgentTask.<C, O, A, S>fromEnvironment(
+              environment, environment.defaultAgentAction(), stopCondition, tRange, dT, options);
+        },
+        executorService);
+  }
+
+  public static <C extends DynamicalSystem<O, A, ?>, O, A, S>
+      ParallelEvaluator<C, SingleAgentTask.Step<O, A, S>, Simulation.Outcome<SingleAgentTask.Step<O, A, S>>>
+          fromEpisodicEnvironment(
+              Supplier<? extends EpisodicEnvironment<O, A, S>> environmentSupplier,
+              Predicate<S> stopCondition,
+              DoubleRange tRange,
+              double dT,
+              SingleAgentTask.Options<O, A, S> options,
+              ExecutorService executorService) {
+    return new ParallelEvaluator<>(
+        () -> SingleAgentTask.<C, O, A, S>fromEpisodicEnvironment(
+            environmentSupplier.get(), stopCondition, tRange, dT, options),
+        executorService);
+  }
+
+  @Override
+  public void close() {
+    if (ownsExecutorService) {
+      executorService.shutdownNow();
+    }
+  }
+
+  public List<O> evaluate(Collection<? extends T> agents) {
+    return start(agents).get();
+  }
+
+  public List<O> evaluate(Collection<? extends T> agents, long firstEpisodeIndex) {
+    return start(agents, firstEpisodeIndex).get();
+  }
+
+  public Evaluation<O> start(Collection<? extends T> agents) {
+    return start(agents, 0);
+  }
+
+  public Evaluation<O> start(Collection<? extends T> agents, long firstEpisodeIndex) {
+    List<Future<O>> futures = new ArrayList<>(agents.size());
+    long episodeIndex = firstEpisodeIndex;
+    for (T agent : agents) {
+      long agentEpisodeIndex = episodeIndex;
+      futures.add(executorService.submit(() -> simulate(agent, agentEpisodeIndex)));
+      episodeIndex = episodeIndex + 1;
+    }
+    return new Evaluation<>(futures);
+  }
+
+  private O simulate(T agent, long episodeIndex) throws InterruptedException {
+    if (permits == null) {
+      return simulateWithPooledSimulation(agent, episodeIndex);
+    }
+    permits.acquire();
+    try {
+      return simulateWithPooledSimulation(agent, episodeIndex);
+    } finally {
+      permits.release();
+    }
+  }
+
+  private O simulateWithPooledSimulation(T agent, long episodeIndex) {
+    Simulation<T, S, O> simulation = idleSimulations.pollFirst();
+    if (simulation == null) {
+      simulation = simulationSupplier.get();
+    }
+    try {
+      if (simulation instanceof EpisodicSimulation<T, S, O> episodicSimulation) {
+        return episodicSimulation.simulate(agent, episodeIndex);
+      }
+      return simulation.simulate(agent);
+    } finally {
+      idleSimulations.offerFirst(simulation);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Early termination of hopeless episodes. After each step, the accumulator built by {@code boundFactory} gives a lower
+ * bound on the (to be minimized) fitness the episode can still reach: as soon as the bound exceeds the threshold, which
+ * is read once at the beginning of each episode, the episode is stopped and its outcome marked as
+ * {@link Simulation.Outcome#truncated() truncated}, with {@link #STOP_REASON} as reason. For fitness to be maximized,
+ * bound and threshold should be negated.
+ */
+public record Racing<S>(Accumulator.Factory<S, Double> boundFactory, DoubleSupplier threshold) {
+
+  public static final String STOP_REASON = "racing";
+
+  private static final Racing<?> NEVER = new Racing<>(
+      Accumulator.Factory.of("no.bound", () -> new Accumulator<>() {
+        @Override
+        public void add(double t, Object snapshot) {}
+
+        @Override
+        public Double get() {
+          return Double.NEGATIVE_INFINITY;
+        }
+      }),
+      () -> Double.POSITIVE_INFINITY);
+
+  public static <S> Racing<S> of(Accumulator.Factory<S, Double> boundFactory, double threshold) {
+    return new Racing<>(boundFactory, () -> threshold);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <S> Racing<S> never() {
+    return (Racing<S>) NEVER;
+  }
+
+  public Racer<S> racer() {
+    return new Racer<>(boundFactory.build(), threshold.getAsDouble());
+  }
+
+  public static final class Racer<S> {
+    private final Accumulator<S, Double> bound;
+    private final double threshold;
+
+    private Racer(Accumulator<S, Double> bound, double threshold) {
+      this.bound = bound;
+      this.threshold = threshold;
+    }
+
+    public boolean isHopeless(double t, S snapshot) {
+      bound.add(t, snapshot);
+      return bound.get() > threshold;
+    }
+  }
+}
@@ -0,0 +1,120 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Which steps of a simulation are kept in {@link Simulation.Outcome#snapshots()}. Besides {@link Mode#ALL}, every mode
+ * needs memory independent of the number of steps. Every mode keeps the last step, so that the final state of a
+ * simulation is always available.
+ */
+public record RecordingPolicy(Mode mode, int n) {
+
+  public static final RecordingPolicy ALL = new RecordingPolicy(Mode.ALL, 1);
+
+  public enum Mode {
+    ALL,
+    LAST,
+    EVERY_K,
+    LAST_N
+  }
+
+  public RecordingPolicy {
+    if (n < 1) {
+      throw new IllegalArgumentException("Recording policy parameter must be positive: %d found".formatted(n));
+    }
+  }
+
+  public static RecordingPolicy every(int k) {
+    return new RecordingPolicy(Mode.EVERY_K, k);
+  }
+
+  public static RecordingPolicy last() {
+    return new RecordingPolicy(Mode.LAST, 1);
+  }
+
+  public static RecordingPolicy lastN(int n) {
+    return new RecordingPolicy(Mode.LAST_N, n);
+  }
+
+  public <S> Recorder<S> recorder() {
+    return new Recorder<>(this);
+  }
+
+  /**
+   * Collects the snapshots of one simulation according to a policy. Snapshots have to be added with increasing times.
+   * With {@link Mode#EVERY_K}, the last added snapshot is kept too, so that final values are always available.
+   */
+  public static final class Recorder<S> {
+    private final RecordingPolicy policy;
+    private final TreeMap<Double, S> snapshots;
+    private final double[] ts;
+    private final Object[] values;
+    private int count;
+
+    private Recorder(RecordingPolicy policy) {
+      this.policy = policy;
+      snapshots = new TreeMap<>();
+      int ringSize = switch (policy.mode) {
+        case LAST, EVERY_K -> 1;
+        case LAST_N -> policy.n;
+        case ALL -> 0;
+      };
+      ts = new double[ringSize];
+      values = new Object[ringSize];
+    }
+
+    public void add(double t, S snapshot) {
+      switch (policy.mode) {
+        case ALL -> snapshots.put(t, snapshot);
+        case LAST, LAST_N -> {
+          ts[count % ts.length] = t;
+          values[count % values.length] = snapshot;
+        }
+        case EVERY_K -> {
+          if (count % policy.n == 0) {
+            snapshots.put(t, snapshot);
+          }
+          ts[0] = t;
+          values[0] = snapshot;
+        }
+      }
+      count = count + 1;
+    }
+
+    public int nOfAdded() {
+      return count;
+    }
+
+    @SuppressWarnings("unchecked")
+    public SortedMap<Double, S> snapshots() {
+      if (ts.length == 0) {
+        return snapshots;
+      }
+      TreeMap<Double, S> all = new TreeMap<>(snapshots);
+      for (int i = Math.max(0, count - ts.length); i < count; i = i + 1) {
+        all.put(ts[i % ts.length], (S) values[i % values.length]);
+      }
+      return all;
+    }
+  }
+}
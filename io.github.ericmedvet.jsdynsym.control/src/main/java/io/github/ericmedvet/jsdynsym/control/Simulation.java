@@ -19,16 +19,82 @@
  */
 package io.github.ericmedvet.jsdynsym.control;
 
+import java.util.Map;
+import java.util.Optional;
 import java.util.SortedMap;
 
 public interface Simulation<T, S, O extends Simulation.Outcome<S>> {
 
+  /**
+   * Stop reason of simulations whose thread was interrupted, e.g., because their evaluation was cancelled.
+   */
+  String CANCELLED_STOP_REASON = "cancelled";
+
   interface Outcome<S> {
     SortedMap<Double, S> snapshots();
 
+    default Map<String, Object> accumulations() {
+      return Map.of();
+    }
+
+    default RecordingPolicy recordingPolicy() {
+      return RecordingPolicy.ALL;
+    }
+
+    default Optional<String> stopReason() {
+      return Optional.empty();
+    }
+
+    default boolean truncated() {
+      return stopReason().isPresent();
+    }
+
     static <S> Outcome<S> of(SortedMap<Double, S> snapshots) {
       return () -> snapshots;
     }
+
+    static <S> Outcome<S> of(SortedMap<Double, S> snapshots, Map<String, Object> accumulations) {
+      return new Outcome<>() {
+        @Override
+        public Map<String, Object> accumulations() {
+          return accumulations;
+        }
+
+        @Override
+        public SortedMap<Double, S> snapshots() {
+          return snapshots;
+        }
+      };
+    }
+
+    static <S> Outcome<S> of(
+        SortedMap<Double, S> snapshots,
+        RecordingPolicy recordingPolicy,
+        Map<String, Object> accumulations,
+        String stopReason) {
+      Optional<String> reason = Optional.ofNullable(stopReason);
+      return new Outcome<>() {
+        @Override
+        public Map<String, Object> accumulations() {
+          return accumulations;
+        }
+
+        @Override
+        public RecordingPolicy recordingPolicy() {
+          return recordingPolicy;
+        }
+
+        @Override
+        public SortedMap<Double, S> snapshots() {
+          return snapshots;
+        }
+
+        @Override
+        public Optional<String> stopReason() {
+          return reason;
+        }
+      };
+    }
   }
 
   O simulate(T t);
@@ -22,9 +22,11 @@ package io.github.ericmedvet.jsdynsym.control;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask.Step;
 import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
@@ -33,28 +35,163 @@ public interface SingleAgentTask<C extends DynamicalSystem<O, A, ?>, O, A, S>
 
   record Step<O, A, S>(O observation, A action, S state) {}
 
+  interface Episodic<C extends DynamicalSystem<O, A, ?>, O, A, S>
+      extends SingleAgentTask<C, O, A, S>,
+          EpisodicSimulation<C, Step<O, A, S>, Simulation.Outcome<Step<O, A, S>>> {
+    @Override
+    default Outcome<Step<O, A, S>> simulate(C agent) {
+      return simulate(agent, 0);
+    }
+  }
+
+  /**
+   * What a task does besides stepping the agent and the environment: which steps are recorded, which values are
+   * accumulated along the steps, and how hopeless episodes are stopped early. {@link #defaults()} records all the
+   * steps, accumulates nothing, and never stops early.
+   */
+  record Options<O, A, S>(
+      RecordingPolicy recordingPolicy,
+      List<? extends Accumulator.Factory<Step<O, A, S>, ?>> accumulatorFactories,
+      Racing<Step<O, A, S>> racing,
+      Watchdog.Factory<Step<O, A, S>> watchdogFactory) {
+
+    public static <O, A, S> Options<O, A, S> defaults() {
+      return new Options<>(RecordingPolicy.ALL, List.of(), Racing.never(), Watchdog.Factory.none());
+    }
+
+    /** Returns true if these options neither accumulate values nor stop episodes early. */
+    public boolean onlyRecord() {
+      return accumulatorFactories.isEmpty()
+          && racing == Racing.<Step<O, A, S>>never()
+          && watchdogFactory == Watchdog.Factory.<Step<O, A, S>>none();
+    }
+
+    public Options<O, A, S> withAccumulatorFactories(
+        List<? extends Accumulator.Factory<Step<O, A, S>, ?>> accumulatorFactories) {
+      return new Options<>(recordingPolicy, accumulatorFactories, racing, watchdogFactory);
+    }
+
+    public Options<O, A, S> withRacing(Racing<Step<O, A, S>> racing) {
+      return new Options<>(recordingPolicy, accumulatorFactories, racing, watchdogFactory);
+    }
+
+    public Options<O, A, S> withRecordingPolicy(RecordingPolicy recordingPolicy) {
+      return new Options<>(recordingPolicy, accumulatorFactories, racing, watchdogFactory);
+    }
+
+    public Options<O, A, S> withWatchdogFactory(Watchdog.Factory<Step<O, A, S>> watchdogFactory) {
+      return new Options<>(recordingPolicy, accumulatorFactories, racing, watchdogFactory);
+    }
+  }
+
   static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> fromEnvironment(
       DynamicalSystem<A, O, S> environment,
       A initialAction,
       Predicate<S> stopCondition,
       DoubleRange tRange,
-      double dT) {
+      double dT,
+      Options<O, A, S> options) {
     return agent -> {
       environment.reset();
-      agent.reset();
-      double t = tRange.min();
-      Map<Double, Step<O, A, S>> steps = new HashMap<>();
-      O observation = environment.step(t, initialAction);
-      while (t <= tRange.max() && !stopCondition.test(environment.getState())) {
-        A action = agent.step(t, observation);
-        observation = environment.step(t, action);
-        steps.put(t, new Step<>(observation, action, environment.getState()));
-        t = t + dT;
-      }
-      return Outcome.of(new TreeMap<>(steps));
+      return run(environment, agent, initialAction, stopCondition, tRange, dT, options);
     };
   }
 
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> fromEnvironment(
+      DynamicalSystem<A, O, S> environment,
+      A initialAction,
+      Predicate<S> stopCondition,
+      DoubleRange tRange,
+      double dT) {
+    return fromEnvironment(environment, initialAction, stopCondition, tRange, dT, Options.defaults());
+  }
+
+  static <C extends DynamicalSystem<O, A, ?>, O, A, S> Episodic<C, O, A, S> fromEpisodicEnvironment(
+      EpisodicEnvironment<O, A, S> environment,
+      Predicate<S> stopCondition,
+      DoubleRange tRange,
+      double dT,
+      Options<O, A, S> options) {
+    return (agent, episodeIndex) -> {
+      environment.reset(episodeIndex);
+      return run(environment, agent, environment.defaultAgentAction(), stopCondition, tRange, dT, options);
+    };
+  }
+
+  private static <C extends DynamicalSystem<O, A, ?>, O, A, S> Outcome<Step<O, A, S>> run(
+      DynamicalSystem<A, O, S> environment,
+      C agent,
+      A initialAction,
+      Predicate<S> stopCondition,
+      DoubleRange tRange,
+      double dT,
+      Options<O, A, S> options) {
+    agent.reset();
+    double t = tRange.min();
+    RecordingPolicy.Recorder<Step<O, A, S>> recorder = options.recordingPolicy().recorder();
+    List<? extends Accumulator<Step<O, A, S>, ?>> accumulators = options.accumulatorFactories().stream()
+        .map(Accumulator.Factory::build)
+        .toList();
+    Racing.Racer<Step<O, A, S>> racer = options.racing().racer();
+    Watchdog<Step<O, A, S>> watchdog = options.watchdogFactory().build();
+    String stopReason = null;
+    O observation = environment.step(t, initialAction);
+    while (t <= tRange.max() && !stopCondition.test(environment.getState())) {
+      if (Thread.currentThread().isInterrupted()) {
+        stopReason = CANCELLED_STOP_REASON;
+        break;
+      }
+      A action = agent.step(t, observation);
+      observation = environment.step(t, action);
+      Step<O, A, S> step = new Step<>(observation, action, environment.getState());
+      recorder.add(t, step);
+      for (Accumulator<Step<O, A, S>, ?> accumulator : accumulators) {
+        accumulator.add(t, step);
+      }
+      if (racer.isHopeless(t, step)) {
+        stopReason = Racing.STOP_REASON;
+        break;
+      }
+      Optional<String> reason = watchdog.check(t, step);
+      if (reason.isPresent()) {
+        stopReason = reason.get();
+        if (!stopCondition.test(environment.getState())) {
+          chargeUntilEnd(accumulators, step, t, tRange, dT);
+        }
+        break;
+      }
+      t = t + dT;
+    }
+    if (accumulators.isEmpty()
+        && stopReason == null
+        && options.recordingPolicy().mode().equals(RecordingPolicy.Mode.ALL)) {
+      return Outcome.of(recorder.snapshots());
+    }
+    // accumulators have nothing to give if the stop condition held before the first step
+    Map<String, Object> accumulations = new LinkedHashMap<>();
+    if (recorder.nOfAdded() > 0) {
+      for (int i = 0; i < accumulators.size(); i = i + 1) {
+        accumulations.put(options.accumulatorFactories().get(i).name(), accumulators.get(i).get());
+      }
+    }
+    return Outcome.of(
+        recorder.snapshots(), options.recordingPolicy(), Collections.unmodifiableMap(accumulations), stopReason);
+  }
+
+  /**
+   * Adds the last step to the accumulators at each of the remaining times of an episode stopped by a {@link Watchdog},
+   * as if the agent stayed in its last state until the end: an agent stopped early is hence not evaluated on a shorter
+   * episode.
+   */
+  static <S> void chargeUntilEnd(
+      List<? extends Accumulator<S, ?>> accumulators, S lastStep, double t, DoubleRange tRange, double dT) {
+    for (double remainingT = t + dT; remainingT <= tRange.max(); remainingT = remainingT + dT) {
+      for (Accumulator<S, ?> accumulator : accumulators) {
+        accumulator.add(remainingT, lastStep);
+      }
+    }
+  }
+
   static <C extends DynamicalSystem<O, A, ?>, O, A, S> SingleAgentTask<C, O, A, S> fromEnvironment(
       Environment<O, A, S> environment, Predicate<S> stopCondition, DoubleRange tRange, double dT) {
     return fromEnvironment(environment, environment.defaultAgentAction(), stopCondition, tRange, dT);
@@ -0,0 +1,62 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stops hopeless episodes. A watchdog is checked after each step and, as soon as it gives a reason, the episode is
+ * stopped and the reason is stored in {@link Simulation.Outcome#stopReason()}. The accumulators of a stopped episode
+ * are then given its last step for each of the remaining times, as if the agent stayed in its last state until the
+ * end. Watchdogs are stateful and meant to be used for a single episode: they are obtained from a {@link Factory}.
+ * Checks are expected to take constant time.
+ */
+public interface Watchdog<S> {
+
+  Optional<String> check(double t, S snapshot);
+
+  interface Factory<S> {
+    Factory<?> NONE = () -> (t, snapshot) -> Optional.empty();
+
+    Watchdog<S> build();
+
+    @SuppressWarnings("unchecked")
+    static <S> Factory<S> none() {
+      return (Factory<S>) NONE;
+    }
+
+    static <S> Factory<S> all(List<? extends Factory<S>> factories) {
+      return () -> {
+        List<Watchdog<S>> watchdogs =
+            factories.stream().map(Factory::build).toList();
+        return (t, snapshot) -> {
+          for (Watchdog<S> watchdog : watchdogs) {
+            Optional<String> reason = watchdog.check(t, snapshot);
+            if (reason.isPresent()) {
+              return reason;
+            }
+          }
+          return Optional.empty();
+        };
+      };
+    }
+  }
+}
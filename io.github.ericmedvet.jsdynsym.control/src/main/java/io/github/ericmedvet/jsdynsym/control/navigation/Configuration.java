@@ -31,6 +31,8 @@ public interface Configuration {
 
   RandomGenerator randomGenerator();
 
+  long seed();
+
   boolean rescaleInput();
 
   double robotMaxV();
@@ -0,0 +1,201 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control.navigation;
+
+import io.github.ericmedvet.jnb.datastructure.DoubleRange;
+import io.github.ericmedvet.jsdynsym.control.Accumulator;
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.geometry.Point;
+import java.util.NoSuchElementException;
+
+public class NavigationAccumulators {
+
+  private NavigationAccumulators() {}
+
+  private static double distance(SingleAgentTask.Step<double[], double[], State> step) {
+    return step.state().robotPosition().distance(step.state().targetPosition());
+  }
+
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> avgD() {
+    return Accumulator.Factory.of("avg.dist", () -> new Accumulator<>() {
+      private double sum;
+      private double compensation;
+      private int n;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        double y = distance(step) - compensation;
+        double newSum = sum + y;
+        compensation = (newSum - sum) - y;
+        sum = newSum;
+        n = n + 1;
+      }
+
+      @Override
+      public Double get() {
+        if (n == 0) {
+          throw new NoSuchElementException("No steps to average");
+        }
+        // the compensation still holds the low-order part lost by the last addition
+        return (sum - compensation) / n;
+      }
+    });
+  }
+
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Point> closestRobotP(
+      boolean normalized) {
+    return Accumulator.Factory.of("closest.pos[normalized=%s]".formatted(normalized), () -> new Accumulator<>() {
+      private Arena arena;
+      private Point closest;
+      private double minD = Double.POSITIVE_INFINITY;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        if (arena == null) {
+          arena = step.state().configuration().arena();
+        }
+        double d = distance(step);
+        if (closest == null || d < minD) {
+          minD = d;
+          closest = step.state().robotPosition();
+        }
+      }
+
+      @Override
+      public Point get() {
+        if (closest == null) {
+          throw new NoSuchElementException("No steps to find the closest position");
+        }
+        if (normalized) {
+          return new Point(
+              new DoubleRange(0, arena.xExtent()).normalize(closest.x()),
+              new DoubleRange(0, arena.yExtent()).normalize(closest.y()));
+        }
+        return closest;
+      }
+    });
+  }
+
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalD() {
+    return Accumulator.Factory.of("final.dist", () -> new Accumulator<>() {
+      private double lastD = Double.NaN;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        lastD = distance(step);
+        empty = false;
+      }
+
+      @Override
+      public Double get() {
+        if (empty) {
+          throw new NoSuchElementException("No steps to take the final distance");
+        }
+        return lastD;
+      }
+    });
+  }
+
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalTimePlusD(
+      double epsilon) {
+    return Accumulator.Factory.of("final.td[epsilon=%s]".formatted(epsilon), () -> new Accumulator<>() {
+      private double lastT;
+      private double lastD;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        lastT = t;
+        lastD = distance(step);
+        empty = false;
+      }
+
+      @Override
+      public Double get() {
+        if (empty) {
+          throw new NoSuchElementException("No steps to take the final time");
+        }
+        return lastT + (lastD < epsilon ? 0d : lastD);
+      }
+    });
+  }
+
+  /**
+   * Lower bound on the final value of {@link #finalTimePlusD(double)}, to be used for {@link
+   * io.github.ericmedvet.jsdynsym.control.Racing}. Time never decreases and the robot moves by at most {@code
+   * sqrt(2)*robotMaxV} per step: from a distance {@code d}, getting closer than {@code epsilon} takes hence at least
+   * {@code floor((d-epsilon)/(sqrt(2)*robotMaxV))+1} further steps, while never getting closer costs at least {@code
+   * epsilon}. The step length is the one between the last two added steps, so that it is always the one of the task;
+   * on the first step, the bound is just the current time.
+   */
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> finalTimePlusDBound(
+      double epsilon) {
+    return Accumulator.Factory.of("final.td.bound[epsilon=%s]".formatted(epsilon), () -> new Accumulator<>() {
+      private double bound = Double.NaN;
+      private double lastT = Double.NaN;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        double dT = empty ? 0d : (t - lastT);
+        double d = distance(step);
+        if (d < epsilon) {
+          bound = t;
+        } else {
+          double maxShift = Math.sqrt(2d) * step.state().configuration().robotMaxV();
+          double nOfSteps = Math.floor((d - epsilon) / maxShift) + 1d;
+          bound = t + Math.min(epsilon, nOfSteps * dT);
+        }
+        lastT = t;
+        empty = false;
+      }
+
+      @Override
+      public Double get() {
+        if (empty) {
+          throw new NoSuchElementException("No steps to bound the final time");
+        }
+        return bound;
+      }
+    });
+  }
+
+  public static Accumulator.Factory<SingleAgentTask.Step<double[], double[], State>, Double> minD() {
+    return Accumulator.Factory.of("min.dist", () -> new Accumulator<>() {
+      private double minD = Double.POSITIVE_INFINITY;
+      private boolean empty = true;
+
+      @Override
+      public void add(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        minD = Math.min(minD, distance(step));
+        empty = false;
+      }
+
+      @Override
+      public Double get() {
+        if (empty) {
+          throw new NoSuchElementException("No steps to take the minimum distance");
+        }
+        return minD;
+      }
+    });
+  }
+}
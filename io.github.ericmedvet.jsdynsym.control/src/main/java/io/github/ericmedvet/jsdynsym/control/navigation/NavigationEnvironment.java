@@ -20,18 +20,18 @@
 package io.github.ericmedvet.jsdynsym.control.navigation;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
-import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.EpisodicEnvironment;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
 import io.github.ericmedvet.jsdynsym.control.geometry.Segment;
 import io.github.ericmedvet.jsdynsym.control.geometry.Semiline;
 import io.github.ericmedvet.jsdynsym.control.navigation.NavigationEnvironment.State;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.random.RandomGenerator;
 
-public class NavigationEnvironment implements NumericalDynamicalSystem<State>, Environment<double[], double[], State> {
+public class NavigationEnvironment
+    implements NumericalDynamicalSystem<State>, EpisodicEnvironment<double[], double[], State> {
 
   public record Configuration(
       DoubleRange initialRobotXRange,
@@ -46,8 +46,40 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
       boolean senseTarget,
       Arena arena,
       boolean rescaleInput,
-      RandomGenerator randomGenerator)
-      implements io.github.ericmedvet.jsdynsym.control.navigation.Configuration {}
+      RandomGenerator randomGenerator,
+      long seed)
+      implements io.github.ericmedvet.jsdynsym.control.navigation.Configuration {
+    public Configuration(
+        DoubleRange initialRobotXRange,
+        DoubleRange initialRobotYRange,
+        DoubleRange initialRobotDirectionRange,
+        DoubleRange targetXRange,
+        DoubleRange targetYRange,
+        double robotRadius,
+        double robotMaxV,
+        List<Double> sensorAngles,
+        double sensorRange,
+        boolean senseTarget,
+        Arena arena,
+        boolean rescaleInput,
+        RandomGenerator randomGenerator) {
+      this(
+          initialRobotXRange,
+          initialRobotYRange,
+          initialRobotDirectionRange,
+          targetXRange,
+          targetYRange,
+          robotRadius,
+          robotMaxV,
+          sensorAngles,
+          sensorRange,
+          senseTarget,
+          arena,
+          rescaleInput,
+          randomGenerator,
+          0);
+    }
+  }
 
   public record State(
       Configuration configuration,
@@ -57,12 +89,19 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
       int nOfCollisions)
       implements io.github.ericmedvet.jsdynsym.control.navigation.State {}
 
+  private static final DoubleRange TARGET_ANGLE_RANGE = new DoubleRange(-2d * Math.PI, 2d * Math.PI);
+
   private final Configuration configuration;
+  private final DoubleRange sensorsRange;
+  private final double[] sensorAngles;
   private State state;
 
   public NavigationEnvironment(Configuration configuration) {
     this.configuration = configuration;
-    reset();
+    sensorsRange = new DoubleRange(configuration.robotRadius, configuration.sensorRange);
+    sensorAngles = configuration.sensorAngles.stream().mapToDouble(a -> a).toArray();
+    // the shared generator is left to explicit resets, since environments may be built concurrently
+    reset(EpisodicEnvironment.episodeGenerator(configuration.seed, 0));
   }
 
   @Override
@@ -77,20 +116,36 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
 
   @Override
   public void reset() {
+    reset(configuration.randomGenerator);
+  }
+
+  @Override
+  public void reset(long episodeIndex) {
+    reset(EpisodicEnvironment.episodeGenerator(configuration.seed, episodeIndex));
+  }
+
+  private void reset(RandomGenerator randomGenerator) {
     state = new State(
         configuration,
         new Point(
-            configuration.targetXRange.denormalize(configuration.randomGenerator.nextDouble()),
-            configuration.targetYRange.denormalize(configuration.randomGenerator.nextDouble())),
+            configuration.targetXRange.denormalize(randomGenerator.nextDouble()),
+            configuration.targetYRange.denormalize(randomGenerator.nextDouble())),
         new Point(
-            configuration.initialRobotXRange.denormalize(configuration.randomGenerator.nextDouble()),
-            configuration.initialRobotYRange.denormalize(configuration.randomGenerator.nextDouble())),
-        configuration.initialRobotDirectionRange.denormalize(configuration.randomGenerator.nextDouble()),
+            configuration.initialRobotXRange.denormalize(randomGenerator.nextDouble()),
+            configuration.initialRobotYRange.denormalize(randomGenerator.nextDouble())),
+        configuration.initialRobotDirectionRange.denormalize(randomGenerator.nextDouble()),
         0);
   }
 
   @Override
   public double[] step(double t, double[] action) {
+    double[] observation = new double[nOfOutputs()];
+    step(t, action, observation);
+    return observation;
+  }
+
+  @Override
+  public void step(double t, double[] action, double[] observation) {
     // check consistency
     if (action.length != nOfInputs()) {
       throw new IllegalArgumentException("Agent action has wrong number of elements: %d found, %d expected"
@@ -98,7 +153,6 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
     }
     // prepare
     List<Segment> segments = configuration.arena.segments();
-    DoubleRange sensorsRange = new DoubleRange(configuration.robotRadius, configuration.sensorRange);
     // apply action
     double v1 = DoubleRange.SYMMETRIC_UNIT.clip(action[0]) * configuration.robotMaxV;
     double v2 = DoubleRange.SYMMETRIC_UNIT.clip(action[1]) * configuration.robotMaxV;
@@ -106,7 +160,10 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
     Point newRobotP = state.robotPosition.sum(new Point(state.robotDirection).scale((v1 + v2) / 2d));
     double deltaA = Math.asin((v2 - v1) / 2d / configuration.robotRadius);
     // check collision and update pose
-    double minD = segments.stream().mapToDouble(newRobotP::distance).min().orElseThrow();
+    double minD = Double.POSITIVE_INFINITY;
+    for (Segment segment : segments) {
+      minD = Math.min(minD, newRobotP.distance(segment));
+    }
     state = new State(
         configuration,
         state.targetPosition,
@@ -114,33 +171,32 @@ public class NavigationEnvironment implements NumericalDynamicalSystem<State>, E
         state.robotDirection + deltaA,
         state.nOfCollisions + ((minD > configuration.robotRadius) ? 0 : 1));
     // compute observation
-    double[] sInputs = configuration.sensorAngles.stream()
-        .mapToDouble(a -> {
-          Semiline sl = new Semiline(state.robotPosition, a + state.robotDirection);
-          return segments.stream()
-              .map(sl::interception)
-              .filter(Optional::isPresent)
-              .mapToDouble(op ->
-                  sensorsRange.normalize(op.orElseThrow().distance(state.robotPosition)))
-              .min()
-              .orElse(Double.POSITIVE_INFINITY);
-        })
-        .toArray();
-    double[] observation = configuration.senseTarget ? new double[configuration.sensorAngles.size() + 2] : sInputs;
+    int c = 0;
     if (configuration.senseTarget) {
-      System.arraycopy(sInputs, 0, observation, 2, sInputs.length);
       double d = state.robotPosition.distance(state.targetPosition);
       double a = (state.targetPosition.diff(state.robotPosition).direction() - state.robotDirection)
           % (2d * Math.PI);
       observation[0] = sensorsRange.normalize(d);
-      observation[1] = new DoubleRange(-2d * Math.PI, 2d * Math.PI).normalize(a);
+      observation[1] = TARGET_ANGLE_RANGE.normalize(a);
+      c = 2;
+    }
+    for (double sensorAngle : sensorAngles) {
+      Semiline sl = new Semiline(state.robotPosition, sensorAngle + state.robotDirection);
+      double sensorValue = Double.POSITIVE_INFINITY;
+      for (Segment segment : segments) {
+        Optional<Point> oIP = sl.interception(segment);
+        if (oIP.isPresent()) {
+          sensorValue = Math.min(sensorValue, sensorsRange.normalize(oIP.get().distance(state.robotPosition)));
+        }
+      }
+      observation[c] = sensorValue;
+      c = c + 1;
     }
     if (configuration.rescaleInput) {
-      observation = Arrays.stream(observation)
-          .map(DoubleRange.SYMMETRIC_UNIT::denormalize)
-          .toArray();
+      for (int i = 0; i < observation.length; i = i + 1) {
+        observation[i] = DoubleRange.SYMMETRIC_UNIT.denormalize(observation[i]);
+      }
     }
-    return observation;
   }
 
   @Override
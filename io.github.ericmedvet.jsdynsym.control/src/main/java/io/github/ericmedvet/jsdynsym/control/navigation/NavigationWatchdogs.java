@@ -0,0 +1,95 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-control
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.control.navigation;
+
+import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
+import io.github.ericmedvet.jsdynsym.control.Watchdog;
+import io.github.ericmedvet.jsdynsym.control.geometry.Point;
+import java.util.Optional;
+
+public class NavigationWatchdogs {
+
+  private NavigationWatchdogs() {}
+
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> collisions(
+      double maxRate, int nOfSteps) {
+    if (nOfSteps < 1) {
+      throw new IllegalArgumentException("Number of steps must be positive: %d found".formatted(nOfSteps));
+    }
+    Optional<String> reason = Optional.of("collisions[rate>%s;steps=%d]".formatted(maxRate, nOfSteps));
+    return () -> new Watchdog<>() {
+      // collision counters of the last nOfSteps steps, as a circular buffer
+      private final int[] nOfCollisions = new int[nOfSteps];
+      private int nOfChecks;
+
+      @Override
+      public Optional<String> check(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        int current = step.state().nOfCollisions();
+        int i = nOfChecks % nOfSteps;
+        int nOfRecentCollisions = current - nOfCollisions[i];
+        nOfCollisions[i] = current;
+        nOfChecks = nOfChecks + 1;
+        if (nOfChecks >= nOfSteps && nOfRecentCollisions > maxRate * nOfSteps) {
+          return reason;
+        }
+        return Optional.empty();
+      }
+    };
+  }
+
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> nonFiniteAction() {
+    Optional<String> reason = Optional.of("non.finite.action");
+    return () -> (t, step) -> {
+      for (double v : step.action()) {
+        if (!Double.isFinite(v)) {
+          return reason;
+        }
+      }
+      return Optional.empty();
+    };
+  }
+
+  public static Watchdog.Factory<SingleAgentTask.Step<double[], double[], State>> stagnation(
+      double epsilon, int nOfSteps) {
+    if (nOfSteps < 1) {
+      throw new IllegalArgumentException("Number of steps must be positive: %d found".formatted(nOfSteps));
+    }
+    Optional<String> reason = Optional.of("stagnation[epsilon=%s;steps=%d]".formatted(epsilon, nOfSteps));
+    return () -> new Watchdog<>() {
+      private Point anchor;
+      private int nOfStagnantSteps;
+
+      @Override
+      public Optional<String> check(double t, SingleAgentTask.Step<double[], double[], State> step) {
+        Point position = step.state().robotPosition();
+        if (anchor == null || position.distance(anchor) > epsilon) {
+          anchor = position;
+          nOfStagnantSteps = 0;
+          return Optional.empty();
+        }
+        nOfStagnantSteps = nOfStagnantSteps + 1;
+        if (nOfStagnantSteps >= nOfSteps) {
+          return reason;
+        }
+        return Optional.empty();
+      }
+    };
+  }
+}
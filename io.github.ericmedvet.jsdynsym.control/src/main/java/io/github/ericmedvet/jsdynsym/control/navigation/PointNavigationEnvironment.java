@@ -20,7 +20,7 @@
 package io.github.ericmedvet.jsdynsym.control.navigation;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
-import io.github.ericmedvet.jsdynsym.control.Environment;
+import io.github.ericmedvet.jsdynsym.control.EpisodicEnvironment;
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
 import io.github.ericmedvet.jsdynsym.control.geometry.Segment;
 import io.github.ericmedvet.jsdynsym.control.navigation.PointNavigationEnvironment.State;
@@ -29,7 +29,7 @@ import java.util.List;
 import java.util.random.RandomGenerator;
 
 public class PointNavigationEnvironment
-    implements NumericalDynamicalSystem<State>, Environment<double[], double[], State> {
+    implements NumericalDynamicalSystem<State>, EpisodicEnvironment<double[], double[], State> {
 
   public record Configuration(
       DoubleRange initialRobotXRange,
@@ -40,18 +40,47 @@ public class PointNavigationEnvironment
       double collisionBlock,
       Arena arena,
       boolean rescaleInput,
-      RandomGenerator randomGenerator)
-      implements io.github.ericmedvet.jsdynsym.control.navigation.Configuration {}
+      RandomGenerator randomGenerator,
+      long seed)
+      implements io.github.ericmedvet.jsdynsym.control.navigation.Configuration {
+    public Configuration(
+        DoubleRange initialRobotXRange,
+        DoubleRange initialRobotYRange,
+        DoubleRange targetXRange,
+        DoubleRange targetYRange,
+        double robotMaxV,
+        double collisionBlock,
+        Arena arena,
+        boolean rescaleInput,
+        RandomGenerator randomGenerator) {
+      this(
+          initialRobotXRange,
+          initialRobotYRange,
+          targetXRange,
+          targetYRange,
+          robotMaxV,
+          collisionBlock,
+          arena,
+          rescaleInput,
+          randomGenerator,
+          0);
+    }
+  }
 
   public record State(Configuration configuration, Point targetPosition, Point robotPosition, int nOfCollisions)
       implements io.github.ericmedvet.jsdynsym.control.navigation.State {}
 
   private final Configuration configuration;
+  private final DoubleRange xRange;
+  private final DoubleRange yRange;
   private State state;
 
   public PointNavigationEnvironment(Configuration configuration) {
     this.configuration = configuration;
-    reset();
+    xRange = new DoubleRange(0, configuration.arena.xExtent());
+    yRange = new DoubleRange(0, configuration.arena.yExtent());
+    // the shared generator is left to explicit resets, since environments may be built concurrently
+    reset(EpisodicEnvironment.episodeGenerator(configuration.seed, 0));
   }
 
   @Override
@@ -66,19 +95,35 @@ public class PointNavigationEnvironment
 
   @Override
   public void reset() {
+    reset(configuration.randomGenerator);
+  }
+
+  @Override
+  public void reset(long episodeIndex) {
+    reset(EpisodicEnvironment.episodeGenerator(configuration.seed, episodeIndex));
+  }
+
+  private void reset(RandomGenerator randomGenerator) {
     state = new State(
         configuration,
         new Point(
-            configuration.targetXRange.denormalize(configuration.randomGenerator.nextDouble()),
-            configuration.targetYRange.denormalize(configuration.randomGenerator.nextDouble())),
+            configuration.targetXRange.denormalize(randomGenerator.nextDouble()),
+            configuration.targetYRange.denormalize(randomGenerator.nextDouble())),
         new Point(
-            configuration.initialRobotXRange.denormalize(configuration.randomGenerator.nextDouble()),
-            configuration.initialRobotYRange.denormalize(configuration.randomGenerator.nextDouble())),
+            configuration.initialRobotXRange.denormalize(randomGenerator.nextDouble()),
+            configuration.initialRobotYRange.denormalize(randomGenerator.nextDouble())),
         0);
   }
 
   @Override
   public double[] step(double t, double[] action) {
+    double[] observation = new double[nOfOutputs()];
+    step(t, action, observation);
+    return observation;
+  }
+
+  @Override
+  public void step(double t, double[] action, double[] observation) {
     // check consistency
     if (action.length != nOfInputs()) {
       throw new IllegalArgumentException("Agent action has wrong number of elements: %d found, %d expected"
@@ -96,12 +141,13 @@ public class PointNavigationEnvironment
         DoubleRange.SYMMETRIC_UNIT.clip(action[1]) * configuration.robotMaxV));
     Segment robotPath = new Segment(state.robotPosition, newRobotP);
     // check collision and update position
-    double collisionT = segments.stream()
-        .map(s -> collide(s, robotPath))
-        .filter(p -> DoubleRange.UNIT.contains(p.x()) && DoubleRange.UNIT.contains(p.y()))
-        .mapToDouble(Point::y)
-        .min()
-        .orElse(1d);
+    double collisionT = 1d;
+    for (Segment segment : segments) {
+      Point p = collide(segment, robotPath);
+      if (DoubleRange.UNIT.contains(p.x()) && DoubleRange.UNIT.contains(p.y())) {
+        collisionT = Math.min(collisionT, p.y());
+      }
+    }
     if (collisionT < 1d) {
       Point collisionPoint = state.robotPosition.sum(robotShift.scale(collisionT));
       double collisionShiftT =
@@ -115,12 +161,10 @@ public class PointNavigationEnvironment
     state = new State(
         configuration, state.targetPosition, newRobotP, state.nOfCollisions + (collisionT < 1d ? 1 : 0));
     // compute observation
-    double iX = new DoubleRange(0, configuration.arena.xExtent()).normalize(newRobotP.x());
-    double iY = new DoubleRange(0, configuration.arena.yExtent()).normalize(newRobotP.y());
-    return new double[] {
-      configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iX) : iX,
-      configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iY) : iY
-    };
+    double iX = xRange.normalize(newRobotP.x());
+    double iY = yRange.normalize(newRobotP.y());
+    observation[0] = configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iX) : iX;
+    observation[1] = configuration.rescaleInput ? DoubleRange.SYMMETRIC_UNIT.denormalize(iY) : iY;
   }
 
   private static Point collide(Segment s1, Segment s2) {
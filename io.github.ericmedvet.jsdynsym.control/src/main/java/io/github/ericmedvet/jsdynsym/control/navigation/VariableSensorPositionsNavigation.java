@@ -21,6 +21,7 @@ package io.github.ericmedvet.jsdynsym.control.navigation;
 
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.Pair;
+import io.github.ericmedvet.jsdynsym.control.EpisodicSimulation;
 import io.github.ericmedvet.jsdynsym.control.Simulation;
 import io.github.ericmedvet.jsdynsym.control.SimulationWithExample;
 import io.github.ericmedvet.jsdynsym.control.SingleAgentTask;
@@ -32,9 +33,13 @@ import java.util.List;
 /** @author "Eric Medvet" on 2024/07/24 for jgea */
 public class VariableSensorPositionsNavigation
     implements SimulationWithExample<
-        Pair<List<Double>, NumericalDynamicalSystem<?>>,
-        SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>,
-        Simulation.Outcome<SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>>> {
+            Pair<List<Double>, NumericalDynamicalSystem<?>>,
+            SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>,
+            Simulation.Outcome<SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>>>,
+        EpisodicSimulation<
+            Pair<List<Double>, NumericalDynamicalSystem<?>>,
+            SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>,
+            Simulation.Outcome<SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>>> {
   private final NavigationEnvironment.Configuration configuration;
   private final int nOfSensors;
   private final DoubleRange tRange;
@@ -51,14 +56,32 @@ public class VariableSensorPositionsNavigation
   @Override
   public Outcome<SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>> simulate(
       Pair<List<Double>, NumericalDynamicalSystem<?>> pair) {
-    if (pair.first().size() != nOfSensors) {
-      throw new IllegalArgumentException("Wrong number of sensor angles: %d found, %d expected"
-          .formatted(pair.first().size(), nOfSensors));
-    }
+    checkNOfSensors(pair.first());
     return SingleAgentTask.fromEnvironment(new NavigationEnvironment(configuration(pair.first())), tRange, dT)
         .simulate(pair.second());
   }
 
+  @Override
+  public Outcome<SingleAgentTask.Step<double[], double[], NavigationEnvironment.State>> simulate(
+      Pair<List<Double>, NumericalDynamicalSystem<?>> pair, long episodeIndex) {
+    checkNOfSensors(pair.first());
+    return SingleAgentTask.<NumericalDynamicalSystem<?>, double[], double[], NavigationEnvironment.State>
+            fromEpisodicEnvironment(
+                new NavigationEnvironment(configuration(pair.first())),
+                s -> false,
+                tRange,
+                dT,
+                SingleAgentTask.Options.defaults())
+        .simulate(pair.second(), episodeIndex);
+  }
+
+  private void checkNOfSensors(List<Double> angles) {
+    if (angles.size() != nOfSensors) {
+      throw new IllegalArgumentException(
+          "Wrong number of sensor angles: %d found, %d expected".formatted(angles.size(), nOfSensors));
+    }
+  }
+
   private NavigationEnvironment.Configuration configuration(List<Double> angles) {
     return new NavigationEnvironment.Configuration(
         configuration.initialRobotXRange(),
@@ -73,7 +96,8 @@ public class VariableSensorPositionsNavigation
         configuration.senseTarget(),
         configuration.arena(),
         configuration.rescaleInput(),
-        configuration.randomGenerator());
+        configuration.randomGenerator(),
+        configuration.seed());
   }
 
   @Override
@@ -21,11 +21,13 @@ package io.github.ericmedvet.jsdynsym.control.navigation;
 
 import io.github.ericmedvet.jsdynsym.control.geometry.Point;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalTimeInvariantStatelessSystem;
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
 import io.github.ericmedvet.jviz.core.drawer.Drawer;
 import io.github.ericmedvet.jviz.core.util.GraphicsUtils;
 import java.awt.*;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Line2D;
+import java.util.Arrays;
 
 public class VectorFieldDrawer implements Drawer<NumericalTimeInvariantStatelessSystem> {
 
@@ -83,28 +85,32 @@ public class VectorFieldDrawer implements Drawer<NumericalTimeInvariantStateless
     int stepsOnY = (int) Math.floor(1d / configuration.step);
     double topLeftX = configuration.marginRate + (1d - configuration.step * (stepsOnX - 1)) / 2;
     double topLeftY = configuration.marginRate + (1d - configuration.step * (stepsOnY - 1)) / 2;
-    double max = 0d;
+    double[][] inputs = new double[stepsOnX * stepsOnY][];
     for (int i = 0; i < stepsOnX; ++i) {
       for (int j = 0; j < stepsOnY; ++j) {
         double[] input = new double[] {topLeftX + i * configuration.step, topLeftY + j * configuration.step};
+        // rescale input
         if (configuration.rescale) {
           input[0] = 2 * input[0] - 1;
           input[1] = 2 * input[1] - 1;
         }
-        double[] output = dynSys.apply(input);
-        max = Math.max(max, Math.sqrt(output[0] * output[0] + output[1] * output[1]));
+        inputs[i * stepsOnY + j] = input;
       }
     }
+    double[][] outputs;
+    if (dynSys instanceof MultiLayerPerceptron mlp) {
+      outputs = mlp.computeBatch(inputs);
+    } else {
+      outputs = Arrays.stream(inputs).map(dynSys::apply).toArray(double[][]::new);
+    }
+    double max = 0d;
+    for (double[] output : outputs) {
+      max = Math.max(max, Math.sqrt(output[0] * output[0] + output[1] * output[1]));
+    }
     for (int i = 0; i < stepsOnX; ++i) {
       for (int j = 0; j < stepsOnY; ++j) {
-        double[] input = new double[] {topLeftX + i * configuration.step, topLeftY + j * configuration.step};
-        Point inputPoint = new Point(input[0], input[1]);
-        // rescale input
-        if (configuration.rescale) {
-          input[0] = 2 * input[0] - 1;
-          input[1] = 2 * input[1] - 1;
-        }
-        double[] output = dynSys.apply(input);
+        Point inputPoint = new Point(topLeftX + i * configuration.step, topLeftY + j * configuration.step);
+        double[] output = outputs[i * stepsOnY + j];
         drawArrow(g, inputPoint, new Point(output[0] / max, output[1] / max));
       }
     }
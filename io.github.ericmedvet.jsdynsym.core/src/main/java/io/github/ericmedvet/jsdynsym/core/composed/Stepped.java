@@ -24,8 +24,8 @@ import io.github.ericmedvet.jsdynsym.core.DynamicalSystem;
 
 public class Stepped<I, O, S> extends AbstractComposed<DynamicalSystem<I, O, S>>
     implements DynamicalSystem<I, O, Stepped.State<S>> {
-  private final double interval;
-  private double lastT;
+  protected final double interval;
+  protected double lastT;
   private O lastOutput;
 
   public Stepped(DynamicalSystem<I, O, S> inner, double interval) {
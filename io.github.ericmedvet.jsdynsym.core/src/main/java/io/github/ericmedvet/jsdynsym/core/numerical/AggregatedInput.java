@@ -22,9 +22,9 @@ package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jsdynsym.core.composed.AbstractComposed;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.SortedMap;
-import java.util.TreeMap;
 
 public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSystem<S>>
     implements NumericalDynamicalSystem<AggregatedInput.State<S>> {
@@ -33,7 +33,9 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
 
   private final double windowT;
   private final EnumSet<Type> types;
-  private final SortedMap<Double, double[]> history;
+  private final InputWindow history;
+  // built on demand from history, and dropped at each change of it
+  private SortedMap<Double, double[]> historyMap;
 
   public AggregatedInput(NumericalDynamicalSystem<S> innerVDS, double windowT, Collection<Type> types) {
     super(innerVDS);
@@ -44,7 +46,7 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
     }
     this.windowT = windowT;
     this.types = EnumSet.copyOf(types);
-    this.history = new TreeMap<>();
+    this.history = new InputWindow(innerVDS.nOfInputs() / types.size());
   }
 
   public enum Type {
@@ -55,46 +57,44 @@ public class AggregatedInput<S> extends AbstractComposed<NumericalDynamicalSyste
 
   @Override
   public State<S> getState() {
-    return new State<>(history, inner().getState());
+    if (historyMap == null) {
+      historyMap = Collections.unmodifiableSortedMap(history.toMap());
+    }
+    return new State<>(historyMap, inner().getState());
   }
 
   @Override
   public void reset() {
     inner().reset();
     history.clear();
+    historyMap = null;
   }
 
   @Override
   public double[] step(double t, double[] input) {
     // add new sample to memory
-    history.put(t, input);
+    history.add(t, input);
     // update memory
-    history.keySet().stream().filter(mt -> mt < t - windowT).toList().forEach(history.keySet()::remove);
+    history.removeOlderThan(t - windowT);
+    historyMap = null;
     // build inner input
     double[] iInput = new double[inner().nOfInputs()];
-    double[] firstInput = history.get(history.firstKey());
-    double firstT = history.firstKey();
+    double firstT = history.firstT();
     int c = 0;
     for (Type type : types) {
       if (type.equals(Type.CURRENT)) {
         System.arraycopy(input, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.TREND)) {
-        double[] lInput = new double[input.length];
         double dT = t - firstT;
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (dT == 0) ? 0 : ((input[i] - firstInput[i]) / dT);
+          iInput[c + i] = (dT == 0) ? 0 : ((input[i] - history.first(i)) / dT);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.AVG)) {
-        double[] lInput = new double[input.length];
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (input[i] + firstInput[i]) / 2d;
+          iInput[c + i] = (input[i] + history.first(i)) / 2d;
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       }
+      c = c + input.length;
     }
     return inner().step(t, iInput);
   }
@@ -23,15 +23,14 @@ package io.github.ericmedvet.jsdynsym.core.numerical;
 import io.github.ericmedvet.jsdynsym.core.composed.AbstractComposed;
 import java.util.Collection;
 import java.util.EnumSet;
-import java.util.SortedMap;
-import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<S>>
     implements NumericalDynamicalSystem<S> {
   private final double windowT;
   private final EnumSet<Type> types;
-  private final SortedMap<Double, double[]> memory;
+  private final InputWindow memory;
+  private final double[] innerInput;
 
   public EnhancedInput(NumericalDynamicalSystem<S> inner, double windowT, Collection<Type> types) {
     super(inner);
@@ -43,13 +42,20 @@ public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<
     }
     this.windowT = windowT;
     this.types = EnumSet.copyOf(types);
-    memory = new TreeMap<>();
+    memory = new InputWindow(
+        inner.nOfInputs() / types.size(), !EnumSet.of(Type.CURRENT, Type.TREND, Type.AVG).containsAll(this.types));
+    innerInput = new double[inner.nOfInputs()];
   }
 
   public enum Type {
     CURRENT,
     TREND,
-    AVG
+    AVG,
+    MEAN,
+    VARIANCE,
+    MIN,
+    MAX,
+    SLOPE
   }
 
   @Override
@@ -65,37 +71,60 @@ public class EnhancedInput<S> extends AbstractComposed<NumericalDynamicalSystem<
 
   @Override
   public double[] step(double t, double[] input) {
+    double[] iInput = new double[inner().nOfInputs()];
+    fillInnerInput(t, input, iInput);
+    return inner().step(t, iInput);
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    fillInnerInput(t, input, innerInput);
+    inner().step(t, innerInput, output);
+  }
+
+  private void fillInnerInput(double t, double[] input, double[] iInput) {
     // add new sample to memory
-    memory.put(t, input);
+    memory.add(t, input);
     // update memory
-    memory.keySet().stream().filter(mt -> mt < t - windowT).toList().forEach(memory.keySet()::remove);
+    memory.removeOlderThan(t - windowT);
     // build inner input
-    double[] iInput = new double[inner().nOfInputs()];
-    double[] firstInput = memory.get(memory.firstKey());
-    double firstT = memory.firstKey();
+    double firstT = memory.firstT();
     int c = 0;
     for (Type type : types) {
       if (type.equals(Type.CURRENT)) {
         System.arraycopy(input, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.TREND)) {
-        double[] lInput = new double[input.length];
         double dT = t - firstT;
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (dT == 0) ? 0 : ((input[i] - firstInput[i]) / dT);
+          iInput[c + i] = (dT == 0) ? 0 : ((input[i] - memory.first(i)) / dT);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       } else if (type.equals(Type.AVG)) {
-        double[] lInput = new double[input.length];
         for (int i = 0; i < input.length; i = i + 1) {
-          lInput[i] = (input[i] + firstInput[i]) / 2d;
+          iInput[c + i] = (input[i] + memory.first(i)) / 2d;
+        }
+      } else if (type.equals(Type.MEAN)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.mean(i);
+        }
+      } else if (type.equals(Type.VARIANCE)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.variance(i);
+        }
+      } else if (type.equals(Type.MIN)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.min(i);
+        }
+      } else if (type.equals(Type.MAX)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.max(i);
+        }
+      } else if (type.equals(Type.SLOPE)) {
+        for (int i = 0; i < input.length; i = i + 1) {
+          iInput[c + i] = memory.slope(i);
         }
-        System.arraycopy(lInput, 0, iInput, c, input.length);
-        c = c + input.length;
       }
+      c = c + input.length;
     }
-    return inner().step(t, iInput);
   }
 
   @Override
@@ -0,0 +1,299 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import io.github.ericmedvet.jsdynsym.core.StatelessSystem;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * A chain of stateless numerical systems compiled into a single system. Each stage writes into a preallocated buffer
+ * and the element-wise operators following a stage are applied to that buffer in the same pass. Because buffers are
+ * reused across invocations, an instance must not be stepped concurrently. A pipeline is built either stage by stage
+ * with {@link #from(NumericalDynamicalSystem)} or from a chain obtained with {@link NumericalStatelessSystem#andThen}
+ * and {@link MultivariateRealFunction#andThen} with {@link #of(NumericalDynamicalSystem)}.
+ */
+public class FusedPipeline implements NumericalStatelessSystem {
+
+  private final List<NumericalDynamicalSystem<StatelessSystem.State>> stages;
+  private final DoubleUnaryOperator[][] operators;
+  private final double[][] buffers;
+  private final String name;
+
+  private FusedPipeline(
+      List<NumericalDynamicalSystem<StatelessSystem.State>> stages,
+      List<List<DoubleUnaryOperator>> operators,
+      String name) {
+    this.stages = stages;
+    this.operators = operators.stream()
+        .map(ops -> ops.toArray(DoubleUnaryOperator[]::new))
+        .toArray(DoubleUnaryOperator[][]::new);
+    buffers = stages.subList(0, stages.size() - 1).stream()
+        .map(s -> new double[s.nOfOutputs()])
+        .toArray(double[][]::new);
+    this.name = name;
+  }
+
+  public static class Builder {
+    private final List<NumericalDynamicalSystem<StatelessSystem.State>> stages;
+    private final List<List<DoubleUnaryOperator>> operators;
+    private final StringBuilder name;
+
+    private Builder(NumericalDynamicalSystem<StatelessSystem.State> first) {
+      stages = new ArrayList<>();
+      operators = new ArrayList<>();
+      name = new StringBuilder(first.toString());
+      stages.add(first);
+      operators.add(new ArrayList<>());
+    }
+
+    public Builder then(NumericalDynamicalSystem<StatelessSystem.State> other) {
+      int nOfOutputs = stages.getLast().nOfOutputs();
+      if (other.nOfInputs() != nOfOutputs) {
+        throw new IllegalArgumentException(
+            "Incompatible input/output size: input=%d, output=%d".formatted(other.nOfInputs(), nOfOutputs));
+      }
+      stages.add(other);
+      operators.add(new ArrayList<>());
+      name.append("[then:%s]".formatted(other));
+      return this;
+    }
+
+    public Builder then(DoubleUnaryOperator f) {
+      operators.getLast().add(f);
+      name.append("[all:%s]".formatted(f));
+      return this;
+    }
+
+    public FusedPipeline build() {
+      return new FusedPipeline(
+          List.copyOf(stages), operators.stream().map(List::copyOf).toList(), name.toString());
+    }
+
+    public MultivariateRealFunction buildFunction() {
+      for (NumericalDynamicalSystem<StatelessSystem.State> stage : stages) {
+        if (!(stage instanceof NumericalTimeInvariantStatelessSystem)) {
+          throw new IllegalArgumentException("Stage %s is not time invariant".formatted(stage));
+        }
+      }
+      FusedPipeline pipeline = build();
+      return new MultivariateRealFunction() {
+        @Override
+        public double[] compute(double... input) {
+          return pipeline.step(0d, input);
+        }
+
+        @Override
+        public int nOfInputs() {
+          return pipeline.nOfInputs();
+        }
+
+        @Override
+        public int nOfOutputs() {
+          return pipeline.nOfOutputs();
+        }
+
+        @Override
+        public String toString() {
+          return pipeline.toString();
+        }
+      };
+    }
+  }
+
+  public static Builder from(NumericalDynamicalSystem<StatelessSystem.State> first) {
+    return new Builder(first);
+  }
+
+  /**
+   * Fuses a chain obtained with the {@code andThen()} methods, flattening it into its stages and element-wise
+   * operators. A system which is not such a chain results in a single stage pipeline.
+   */
+  public static FusedPipeline of(NumericalDynamicalSystem<StatelessSystem.State> system) {
+    return append(null, system).build();
+  }
+
+  private static Builder append(Builder builder, NumericalDynamicalSystem<StatelessSystem.State> system) {
+    if (system instanceof AndThen andThen) {
+      return append(append(builder, andThen.first()), andThen.second());
+    }
+    if (system instanceof AndThenFunction andThen) {
+      return append(append(builder, andThen.first()), andThen.second());
+    }
+    if (system instanceof AndThenOperator andThen) {
+      return append(builder, andThen.inner()).then(andThen.operator());
+    }
+    if (system instanceof AndThenFunctionOperator andThen) {
+      return append(builder, andThen.inner()).then(andThen.operator());
+    }
+    return builder == null ? new Builder(system) : builder.then(system);
+  }
+
+  // results of the andThen() methods, kept as such so that of() can flatten them
+  record AndThen(NumericalStatelessSystem first, NumericalStatelessSystem second)
+      implements NumericalStatelessSystem {
+    @Override
+    public int nOfInputs() {
+      return first.nOfInputs();
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return second.nOfOutputs();
+    }
+
+    @Override
+    public double[] step(double t, double[] input) {
+      if (input.length != nOfInputs()) {
+        throw new IllegalArgumentException(
+            String.format("Unsupported input size: %d instead of %d", input.length, nOfInputs()));
+      }
+      return second.step(t, first.step(t, input));
+    }
+
+    @Override
+    public String toString() {
+      return "%s[then:%s]".formatted(first, second);
+    }
+  }
+
+  record AndThenOperator(NumericalStatelessSystem inner, DoubleUnaryOperator operator)
+      implements NumericalStatelessSystem {
+    @Override
+    public int nOfInputs() {
+      return inner.nOfInputs();
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return inner.nOfOutputs();
+    }
+
+    @Override
+    public double[] step(double t, double[] input) {
+      return Arrays.stream(inner.step(t, input)).map(operator).toArray();
+    }
+
+    @Override
+    public String toString() {
+      return "%s[all:%s]".formatted(inner, operator);
+    }
+  }
+
+  record AndThenFunction(MultivariateRealFunction first, MultivariateRealFunction second)
+      implements MultivariateRealFunction {
+    @Override
+    public double[] compute(double... input) {
+      return second.compute(first.compute(input));
+    }
+
+    @Override
+    public int nOfInputs() {
+      return first.nOfInputs();
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return second.nOfOutputs();
+    }
+
+    @Override
+    public String toString() {
+      return "%s[then:%s]".formatted(first, second);
+    }
+  }
+
+  record AndThenFunctionOperator(MultivariateRealFunction inner, DoubleUnaryOperator operator)
+      implements MultivariateRealFunction {
+    @Override
+    public double[] compute(double... input) {
+      return Arrays.stream(inner.compute(input)).map(operator).toArray();
+    }
+
+    @Override
+    public int nOfInputs() {
+      return inner.nOfInputs();
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return inner.nOfOutputs();
+    }
+
+    @Override
+    public String toString() {
+      return "[all:%s]".formatted(operator);
+    }
+  }
+
+  @Override
+  public int nOfInputs() {
+    return stages.getFirst().nOfInputs();
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return stages.getLast().nOfOutputs();
+  }
+
+  @Override
+  public double[] step(double t, double[] input) {
+    double[] output = new double[nOfOutputs()];
+    step(t, input, output);
+    return output;
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    if (input.length != nOfInputs()) {
+      throw new IllegalArgumentException(
+          String.format("Unsupported input size: %d instead of %d", input.length, nOfInputs()));
+    }
+    double[] current = input;
+    for (int k = 0; k < stages.size(); k = k + 1) {
+      double[] buffer = (k < buffers.length) ? buffers[k] : output;
+      stages.get(k).step(t, current, buffer);
+      DoubleUnaryOperator[] stageOperators = operators[k];
+      if (stageOperators.length > 0) {
+        for (int i = 0; i < buffer.length; i = i + 1) {
+          double v = buffer[i];
+          for (DoubleUnaryOperator operator : stageOperators) {
+            v = operator.applyAsDouble(v);
+          }
+          buffer[i] = v;
+        }
+      }
+      current = buffer;
+    }
+  }
+
+  @Override
+  public void reset() {
+    stages.forEach(NumericalDynamicalSystem::reset);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
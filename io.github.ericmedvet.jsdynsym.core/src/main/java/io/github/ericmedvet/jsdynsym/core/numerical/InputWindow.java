@@ -0,0 +1,276 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import java.util.Arrays;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+final class InputWindow {
+  private static final int INITIAL_CAPACITY = 16;
+
+  private final int nOfInputs;
+  private final boolean withStatistics;
+  private double[] ts;
+  private double[] inputs;
+  private int head;
+  private int size;
+  // sequence number of the sample at head, for referring to samples regardless of their slot
+  private long headSeq;
+  // running sums, with times relative to referenceT, periodically recomputed to bound numerical drift
+  private double referenceT;
+  private double sumT;
+  private double sumT2;
+  private final double[] sumXs;
+  private final double[] sumX2s;
+  private final double[] sumTXs;
+  private int nOfRemovals;
+  // monotonic deques of sequence numbers, for windowed min and max
+  private long[][] minDeques;
+  private long[][] maxDeques;
+  private final int[] minDequeHeads;
+  private final int[] minDequeSizes;
+  private final int[] maxDequeHeads;
+  private final int[] maxDequeSizes;
+
+  InputWindow(int nOfInputs, boolean withStatistics) {
+    this.nOfInputs = nOfInputs;
+    this.withStatistics = withStatistics;
+    ts = new double[INITIAL_CAPACITY];
+    inputs = new double[INITIAL_CAPACITY * nOfInputs];
+    int nOfStatistics = withStatistics ? nOfInputs : 0;
+    sumXs = new double[nOfStatistics];
+    sumX2s = new double[nOfStatistics];
+    sumTXs = new double[nOfStatistics];
+    minDeques = new long[nOfStatistics][INITIAL_CAPACITY];
+    maxDeques = new long[nOfStatistics][INITIAL_CAPACITY];
+    minDequeHeads = new int[nOfStatistics];
+    minDequeSizes = new int[nOfStatistics];
+    maxDequeHeads = new int[nOfStatistics];
+    maxDequeSizes = new int[nOfStatistics];
+  }
+
+  InputWindow(int nOfInputs) {
+    this(nOfInputs, false);
+  }
+
+  void add(double t, double[] input) {
+    if (size > 0 && ts[slot(size - 1)] == t) {
+      System.arraycopy(input, 0, inputs, slot(size - 1) * nOfInputs, nOfInputs);
+      if (withStatistics) {
+        recomputeStatistics();
+      }
+      return;
+    }
+    if (size == ts.length) {
+      grow();
+    }
+    int slot = slot(size);
+    ts[slot] = t;
+    System.arraycopy(input, 0, inputs, slot * nOfInputs, nOfInputs);
+    size = size + 1;
+    if (withStatistics) {
+      if (size == 1) {
+        referenceT = t;
+      }
+      double rT = t - referenceT;
+      sumT = sumT + rT;
+      sumT2 = sumT2 + rT * rT;
+      long seq = headSeq + size - 1;
+      for (int i = 0; i < nOfInputs; i++) {
+        double x = input[i];
+        sumXs[i] = sumXs[i] + x;
+        sumX2s[i] = sumX2s[i] + x * x;
+        sumTXs[i] = sumTXs[i] + rT * x;
+        while (minDequeSizes[i] > 0 && value(dequeBack(minDeques[i], minDequeHeads[i], minDequeSizes[i]), i) >= x) {
+          minDequeSizes[i] = minDequeSizes[i] - 1;
+        }
+        minDeques[i][(minDequeHeads[i] + minDequeSizes[i]) % ts.length] = seq;
+        minDequeSizes[i] = minDequeSizes[i] + 1;
+        while (maxDequeSizes[i] > 0 && value(dequeBack(maxDeques[i], maxDequeHeads[i], maxDequeSizes[i]), i) <= x) {
+          maxDequeSizes[i] = maxDequeSizes[i] - 1;
+        }
+        maxDeques[i][(maxDequeHeads[i] + maxDequeSizes[i]) % ts.length] = seq;
+        maxDequeSizes[i] = maxDequeSizes[i] + 1;
+      }
+    }
+  }
+
+  void clear() {
+    head = 0;
+    size = 0;
+    headSeq = 0;
+    if (withStatistics) {
+      recomputeStatistics();
+    }
+  }
+
+  private static long dequeBack(long[] deque, int dequeHead, int dequeSize) {
+    return deque[(dequeHead + dequeSize - 1) % deque.length];
+  }
+
+  double first(int i) {
+    return inputs[head * nOfInputs + i];
+  }
+
+  double firstT() {
+    return ts[head];
+  }
+
+  private void grow() {
+    int capacity = ts.length;
+    double[] newTs = new double[capacity * 2];
+    double[] newInputs = new double[inputs.length * 2];
+    for (int j = 0; j < size; j++) {
+      newTs[j] = ts[slot(j)];
+      System.arraycopy(inputs, slot(j) * nOfInputs, newInputs, j * nOfInputs, nOfInputs);
+    }
+    ts = newTs;
+    inputs = newInputs;
+    head = 0;
+    for (int i = 0; i < sumXs.length; i++) {
+      minDeques[i] = unrolled(minDeques[i], minDequeHeads[i], minDequeSizes[i], capacity * 2);
+      minDequeHeads[i] = 0;
+      maxDeques[i] = unrolled(maxDeques[i], maxDequeHeads[i], maxDequeSizes[i], capacity * 2);
+      maxDequeHeads[i] = 0;
+    }
+  }
+
+  double max(int i) {
+    return value(maxDeques[i][maxDequeHeads[i]], i);
+  }
+
+  double mean(int i) {
+    return sumXs[i] / size;
+  }
+
+  double min(int i) {
+    return value(minDeques[i][minDequeHeads[i]], i);
+  }
+
+  private void recomputeStatistics() {
+    nOfRemovals = 0;
+    referenceT = (size > 0) ? ts[head] : 0d;
+    sumT = 0d;
+    sumT2 = 0d;
+    Arrays.fill(sumXs, 0d);
+    Arrays.fill(sumX2s, 0d);
+    Arrays.fill(sumTXs, 0d);
+    Arrays.fill(minDequeSizes, 0);
+    Arrays.fill(maxDequeSizes, 0);
+    Arrays.fill(minDequeHeads, 0);
+    Arrays.fill(maxDequeHeads, 0);
+    for (int j = 0; j < size; j++) {
+      double rT = ts[slot(j)] - referenceT;
+      sumT = sumT + rT;
+      sumT2 = sumT2 + rT * rT;
+      long seq = headSeq + j;
+      for (int i = 0; i < nOfInputs; i++) {
+        double x = inputs[slot(j) * nOfInputs + i];
+        sumXs[i] = sumXs[i] + x;
+        sumX2s[i] = sumX2s[i] + x * x;
+        sumTXs[i] = sumTXs[i] + rT * x;
+        while (minDequeSizes[i] > 0 && value(minDeques[i][minDequeSizes[i] - 1], i) >= x) {
+          minDequeSizes[i] = minDequeSizes[i] - 1;
+        }
+        minDeques[i][minDequeSizes[i]] = seq;
+        minDequeSizes[i] = minDequeSizes[i] + 1;
+        while (maxDequeSizes[i] > 0 && value(maxDeques[i][maxDequeSizes[i] - 1], i) <= x) {
+          maxDequeSizes[i] = maxDequeSizes[i] - 1;
+        }
+        maxDeques[i][maxDequeSizes[i]] = seq;
+        maxDequeSizes[i] = maxDequeSizes[i] + 1;
+      }
+    }
+  }
+
+  void removeOlderThan(double t) {
+    while (size > 0 && ts[head] < t) {
+      if (withStatistics) {
+        double rT = ts[head] - referenceT;
+        sumT = sumT - rT;
+        sumT2 = sumT2 - rT * rT;
+        for (int i = 0; i < nOfInputs; i++) {
+          double x = inputs[head * nOfInputs + i];
+          sumXs[i] = sumXs[i] - x;
+          sumX2s[i] = sumX2s[i] - x * x;
+          sumTXs[i] = sumTXs[i] - rT * x;
+          if (minDequeSizes[i] > 0 && minDeques[i][minDequeHeads[i]] == headSeq) {
+            minDequeHeads[i] = (minDequeHeads[i] + 1) % ts.length;
+            minDequeSizes[i] = minDequeSizes[i] - 1;
+          }
+          if (maxDequeSizes[i] > 0 && maxDeques[i][maxDequeHeads[i]] == headSeq) {
+            maxDequeHeads[i] = (maxDequeHeads[i] + 1) % ts.length;
+            maxDequeSizes[i] = maxDequeSizes[i] - 1;
+          }
+        }
+        nOfRemovals = nOfRemovals + 1;
+      }
+      head = (head + 1) % ts.length;
+      headSeq = headSeq + 1;
+      size = size - 1;
+    }
+    if (withStatistics && nOfRemovals > size) {
+      recomputeStatistics();
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  private int slot(int j) {
+    return (head + j) % ts.length;
+  }
+
+  double slope(int i) {
+    double denominator = size * sumT2 - sumT * sumT;
+    if (denominator <= 0d) {
+      return 0d;
+    }
+    return (size * sumTXs[i] - sumT * sumXs[i]) / denominator;
+  }
+
+  SortedMap<Double, double[]> toMap() {
+    SortedMap<Double, double[]> map = new TreeMap<>();
+    for (int j = 0; j < size; j++) {
+      map.put(ts[slot(j)], Arrays.copyOfRange(inputs, slot(j) * nOfInputs, (slot(j) + 1) * nOfInputs));
+    }
+    return map;
+  }
+
+  private static long[] unrolled(long[] deque, int dequeHead, int dequeSize, int capacity) {
+    long[] newDeque = new long[capacity];
+    for (int j = 0; j < dequeSize; j++) {
+      newDeque[j] = deque[(dequeHead + j) % deque.length];
+    }
+    return newDeque;
+  }
+
+  private double value(long seq, int i) {
+    return inputs[slot((int) (seq - headSeq)) * nOfInputs + i];
+  }
+
+  double variance(int i) {
+    double mean = sumXs[i] / size;
+    return Math.max(0d, sumX2s[i] / size - mean * mean);
+  }
+}
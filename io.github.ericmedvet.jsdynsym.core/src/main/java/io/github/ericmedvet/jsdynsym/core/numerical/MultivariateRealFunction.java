@@ -20,8 +20,6 @@
 
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
-import io.github.ericmedvet.jnb.datastructure.NamedFunction;
-import java.util.Arrays;
 import java.util.List;
 import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
@@ -72,17 +70,10 @@ public interface MultivariateRealFunction extends NumericalTimeInvariantStateles
       throw new IllegalArgumentException(
           "Incompatible input/output size: input=%d, output=%d".formatted(other.nOfInputs(), nOfOutputs()));
     }
-    MultivariateRealFunction thisMrf = this;
-    return MultivariateRealFunction.from(
-        NamedFunction.from(in -> other.compute(thisMrf.compute(in)), this + "[then:%s]".formatted(other)),
-        thisMrf.nOfInputs(),
-        other.nOfOutputs());
+    return new FusedPipeline.AndThenFunction(this, other);
   }
 
   default MultivariateRealFunction andThen(DoubleUnaryOperator f) {
-    return MultivariateRealFunction.from(
-        NamedFunction.from(in -> Arrays.stream(compute(in)).map(f).toArray(), "[all:%s]".formatted(f)),
-        nOfInputs(),
-        nOfOutputs());
+    return new FusedPipeline.AndThenFunctionOperator(this, f);
   }
 }
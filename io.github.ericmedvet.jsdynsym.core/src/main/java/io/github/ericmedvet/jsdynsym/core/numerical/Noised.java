@@ -21,7 +21,6 @@
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jsdynsym.core.composed.AbstractComposed;
-import java.util.Arrays;
 import java.util.random.RandomGenerator;
 
 public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> implements NumericalDynamicalSystem<S> {
@@ -29,6 +28,7 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
   private final double inputSigma;
   private final double outputSigma;
   private final RandomGenerator randomGenerator;
+  private final double[] noisedInput;
 
   public Noised(
       NumericalDynamicalSystem<S> inner, double inputSigma, double outputSigma, RandomGenerator randomGenerator) {
@@ -36,6 +36,15 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
     this.inputSigma = inputSigma;
     this.outputSigma = outputSigma;
     this.randomGenerator = randomGenerator;
+    noisedInput = new double[inner.nOfInputs()];
+  }
+
+  public Noised(
+      NumericalDynamicalSystem<S> inner,
+      double inputSigma,
+      double outputSigma,
+      RandomGenerator.SplittableGenerator splittableGenerator) {
+    this(inner, inputSigma, outputSigma, (RandomGenerator) splittableGenerator.split());
   }
 
   @Override
@@ -52,19 +61,37 @@ public class Noised<S> extends AbstractComposed<NumericalDynamicalSystem<S>> imp
   public double[] step(double t, double[] input) {
     double[] noisedInput = input;
     if (inputSigma > 0) {
-      noisedInput = Arrays.stream(input)
-          .map(v -> v + randomGenerator.nextGaussian(0, inputSigma))
-          .toArray();
+      noisedInput = new double[input.length];
+      addNoise(input, noisedInput, inputSigma);
     }
     double[] noisedOutput = inner().step(t, noisedInput);
     if (outputSigma > 0) {
-      noisedOutput = Arrays.stream(noisedOutput)
-          .map(v -> v + randomGenerator.nextGaussian(0, outputSigma))
-          .toArray();
+      double[] innerOutput = noisedOutput;
+      noisedOutput = new double[innerOutput.length];
+      addNoise(innerOutput, noisedOutput, outputSigma);
     }
     return noisedOutput;
   }
 
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    double[] localNoisedInput = input;
+    if (inputSigma > 0) {
+      addNoise(input, noisedInput, inputSigma);
+      localNoisedInput = noisedInput;
+    }
+    inner().step(t, localNoisedInput, output);
+    if (outputSigma > 0) {
+      addNoise(output, output, outputSigma);
+    }
+  }
+
+  private void addNoise(double[] values, double[] noisedValues, double sigma) {
+    for (int i = 0; i < values.length; i = i + 1) {
+      noisedValues[i] = values[i] + randomGenerator.nextGaussian(0, sigma);
+    }
+  }
+
   @Override
   public int nOfInputs() {
     return inner().nOfInputs();
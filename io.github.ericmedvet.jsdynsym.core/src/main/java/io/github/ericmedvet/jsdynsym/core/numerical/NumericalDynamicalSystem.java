@@ -51,6 +51,11 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
           return inner.step(t, input);
         }
 
+        @Override
+        public void step(double t, double[] input, double[] output) {
+          stepInto(inner, t, input, output);
+        }
+
         @Override
         public NumericalDynamicalSystem<S1> inner() {
           //noinspection unchecked
@@ -89,6 +94,11 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
         return inner.step(t, input);
       }
 
+      @Override
+      public void step(double t, double[] input, double[] output) {
+        stepInto(inner, t, input, output);
+      }
+
       @Override
       public int nOfInputs() {
         return nOfInputs;
@@ -106,6 +116,24 @@ public interface NumericalDynamicalSystem<S> extends DynamicalSystem<double[], d
     };
   }
 
+  private static void stepInto(
+      DynamicalSystem<double[], double[], ?> system, double t, double[] input, double[] output) {
+    if (system instanceof NumericalDynamicalSystem<?> numericalDynamicalSystem) {
+      numericalDynamicalSystem.step(t, input, output);
+    } else {
+      System.arraycopy(system.step(t, input), 0, output, 0, output.length);
+    }
+  }
+
+  /**
+   * Steps the system writing the output into {@code output}, which must have {@link #nOfOutputs()} elements. The
+   * default implementation copies the array returned by {@link #step(double, Object)}; implementations may override
+   * it to avoid allocating.
+   */
+  default void step(double t, double[] input, double[] output) {
+    System.arraycopy(step(t, input), 0, output, 0, output.length);
+  }
+
   default void checkDimension(int nOfInputs, int nOfOutputs) {
     if (nOfInputs() != nOfInputs) {
       throw new IllegalArgumentException(
@@ -0,0 +1,65 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import io.github.ericmedvet.jsdynsym.core.composed.OutStepped;
+import io.github.ericmedvet.jsdynsym.core.composed.Stepped;
+
+public class NumericalOutStepped<S> extends OutStepped<double[], double[], S>
+    implements NumericalDynamicalSystem<Stepped.State<S>> {
+  private final NumericalDynamicalSystem<S> numericalInner;
+  private final double[] innerOutput;
+  private final double[] heldOutput;
+
+  public NumericalOutStepped(NumericalDynamicalSystem<S> inner, double interval) {
+    super(inner, interval);
+    numericalInner = inner;
+    innerOutput = new double[inner.nOfOutputs()];
+    heldOutput = new double[inner.nOfOutputs()];
+  }
+
+  @Override
+  public double[] step(double t, double[] input) {
+    double[] output = new double[heldOutput.length];
+    step(t, input, output);
+    return output;
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    numericalInner.step(t, input, innerOutput);
+    if (t - lastT > interval) {
+      System.arraycopy(innerOutput, 0, heldOutput, 0, heldOutput.length);
+      lastT = t;
+    }
+    System.arraycopy(heldOutput, 0, output, 0, heldOutput.length);
+  }
+
+  @Override
+  public int nOfInputs() {
+    return numericalInner.nOfInputs();
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return numericalInner.nOfOutputs();
+  }
+}
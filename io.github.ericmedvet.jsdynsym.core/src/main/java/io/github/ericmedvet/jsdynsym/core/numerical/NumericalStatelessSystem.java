@@ -21,7 +21,6 @@
 package io.github.ericmedvet.jsdynsym.core.numerical;
 
 import io.github.ericmedvet.jsdynsym.core.StatelessSystem;
-import java.util.Arrays;
 import java.util.function.BiFunction;
 import java.util.function.DoubleUnaryOperator;
 
@@ -68,14 +67,10 @@ public interface NumericalStatelessSystem
       throw new IllegalArgumentException(
           "Incompatible input/output size: input=%d, output=%d".formatted(other.nOfInputs(), nOfOutputs()));
     }
-    NumericalStatelessSystem thisSystem = this;
-    return NumericalStatelessSystem.from(
-        thisSystem.nOfInputs(), other.nOfOutputs(), (t, in) -> other.step(t, thisSystem.step(t, in)));
+    return new FusedPipeline.AndThen(this, other);
   }
 
   default NumericalStatelessSystem andThen(DoubleUnaryOperator f) {
-    return NumericalStatelessSystem.from(nOfInputs(), nOfOutputs(), (t, in) -> Arrays.stream(step(t, in))
-        .map(f)
-        .toArray());
+    return new FusedPipeline.AndThenOperator(this, f);
   }
 }
@@ -0,0 +1,142 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.core.numerical;
+
+import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.composed.AbstractComposed;
+
+/**
+ * A {@link Sinusoidal} that, when consecutively stepped with a time increment equal to {@code dT}, advances each
+ * oscillator by rotating its (sin, cos) pair rather than calling {@link Math#sin(double)}. Every {@code resyncInterval}
+ * steps, whenever the time increment differs from {@code dT}, and after each change of the params of the inner
+ * sinusoidal, the pair is recomputed exactly.
+ */
+public class RecurrentSinusoidal extends AbstractComposed<Sinusoidal>
+    implements NumericalDynamicalSystem<RecurrentSinusoidal.State>, NumericalParametrized<RecurrentSinusoidal> {
+  private static final double DT_TOLERANCE = 1e-9;
+
+  private final double dT;
+  private final int resyncInterval;
+  private final double[] sines;
+  private final double[] cosines;
+  private final double[] stepSines;
+  private final double[] stepCosines;
+  private int paramsVersion;
+  private double lastT;
+  private int nOfStepsSinceResync;
+
+  public RecurrentSinusoidal(Sinusoidal inner, double dT, int resyncInterval) {
+    super(inner);
+    if (dT <= 0) {
+      throw new IllegalArgumentException("Time step must be positive: %f found".formatted(dT));
+    }
+    if (resyncInterval < 1) {
+      throw new IllegalArgumentException("Resync interval must be positive: %d found".formatted(resyncInterval));
+    }
+    this.dT = dT;
+    this.resyncInterval = resyncInterval;
+    sines = new double[inner.nOfOutputs()];
+    cosines = new double[inner.nOfOutputs()];
+    stepSines = new double[inner.nOfOutputs()];
+    stepCosines = new double[inner.nOfOutputs()];
+    paramsVersion = inner.paramsVersion() - 1;
+  }
+
+  public record State(double[] sines, double[] cosines) {}
+
+  @Override
+  public double[] getParams() {
+    return inner().getParams();
+  }
+
+  @Override
+  public void setParams(double[] params) {
+    inner().setParams(params);
+  }
+
+  @Override
+  public State getState() {
+    return new State(sines, cosines);
+  }
+
+  @Override
+  public void reset() {
+    nOfStepsSinceResync = 0;
+  }
+
+  @Override
+  public double[] step(double t, double[] input) {
+    double[] output = new double[nOfOutputs()];
+    step(t, input, output);
+    return output;
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    Sinusoidal sinusoidal = inner();
+    int nOfOutputs = sinusoidal.nOfOutputs();
+    if (paramsVersion != sinusoidal.paramsVersion()) {
+      for (int i = 0; i < nOfOutputs; i = i + 1) {
+        stepSines[i] = Math.sin(sinusoidal.angularFrequency(i) * dT);
+        stepCosines[i] = Math.cos(sinusoidal.angularFrequency(i) * dT);
+      }
+      paramsVersion = sinusoidal.paramsVersion();
+      nOfStepsSinceResync = 0;
+    }
+    if (nOfStepsSinceResync > 0 && nOfStepsSinceResync < resyncInterval && isNextStep(t)) {
+      for (int i = 0; i < nOfOutputs; i = i + 1) {
+        double sin = sines[i] * stepCosines[i] + cosines[i] * stepSines[i];
+        cosines[i] = cosines[i] * stepCosines[i] - sines[i] * stepSines[i];
+        sines[i] = sin;
+      }
+      nOfStepsSinceResync = nOfStepsSinceResync + 1;
+    } else {
+      for (int i = 0; i < nOfOutputs; i = i + 1) {
+        double angle = sinusoidal.angularFrequency(i) * t + sinusoidal.phase(i);
+        sines[i] = Math.sin(angle);
+        cosines[i] = Math.cos(angle);
+      }
+      nOfStepsSinceResync = 1;
+    }
+    lastT = t;
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      output[i] = sinusoidal.amplitude(i) * sines[i] + sinusoidal.bias(i);
+    }
+  }
+
+  private boolean isNextStep(double t) {
+    return Math.abs(t - lastT - dT) <= DT_TOLERANCE * dT;
+  }
+
+  @Override
+  public int nOfInputs() {
+    return inner().nOfInputs();
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return inner().nOfOutputs();
+  }
+
+  @Override
+  public String toString() {
+    return "recurrent[dT=%s](%s)".formatted(dT, inner());
+  }
+}
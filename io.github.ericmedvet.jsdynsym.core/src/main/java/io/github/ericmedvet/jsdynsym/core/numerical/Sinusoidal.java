@@ -23,7 +23,6 @@ package io.github.ericmedvet.jsdynsym.core.numerical;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
 import java.util.Arrays;
-import java.util.stream.IntStream;
 
 public class Sinusoidal implements NumericalStatelessSystem, NumericalParametrized<Sinusoidal> {
   private static final DoubleRange PARAM_RANGE = DoubleRange.SYMMETRIC_UNIT;
@@ -38,6 +37,12 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
   private final DoubleRange frequencyRange;
   private final DoubleRange amplitudeRange;
   private final DoubleRange biasRange;
+  private final double[] denormalizedPhases;
+  private final double[] angularFrequencies;
+  private final double[] denormalizedAmplitudes;
+  private final double[] denormalizedBiases;
+  // incremented at each change of the params, for systems built on top of this one
+  private int paramsVersion;
 
   public Sinusoidal(
       int nOfInputs,
@@ -56,6 +61,11 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
     frequencies = new double[nOfOutputs];
     amplitudes = new double[nOfOutputs];
     biases = new double[nOfOutputs];
+    denormalizedPhases = new double[nOfOutputs];
+    angularFrequencies = new double[nOfOutputs];
+    denormalizedAmplitudes = new double[nOfOutputs];
+    denormalizedBiases = new double[nOfOutputs];
+    updateDenormalized();
   }
 
   private static double[] nCopies(double value, int n) {
@@ -92,6 +102,7 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
           "Amplitudes size is wrong: %d expected, %d found".formatted(nOfOutputs, amplitudes.length));
     }
     System.arraycopy(amplitudes, 0, this.amplitudes, 0, nOfOutputs);
+    updateDenormalized();
   }
 
   @Override
@@ -113,6 +124,36 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
     return n;
   }
 
+  private void updateDenormalized() {
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      denormalizedAmplitudes[i] = amplitudeRange.denormalize(PARAM_RANGE.normalize(amplitudes[i]));
+      denormalizedPhases[i] = phaseRange.denormalize(PARAM_RANGE.normalize(phases[i]));
+      angularFrequencies[i] = 2d * Math.PI * frequencyRange.denormalize(PARAM_RANGE.normalize(frequencies[i]));
+      denormalizedBiases[i] = biasRange.denormalize(PARAM_RANGE.normalize(biases[i]));
+    }
+    paramsVersion = paramsVersion + 1;
+  }
+
+  double amplitude(int i) {
+    return denormalizedAmplitudes[i];
+  }
+
+  double angularFrequency(int i) {
+    return angularFrequencies[i];
+  }
+
+  double bias(int i) {
+    return denormalizedBiases[i];
+  }
+
+  double phase(int i) {
+    return denormalizedPhases[i];
+  }
+
+  int paramsVersion() {
+    return paramsVersion;
+  }
+
   public void setAmplitudes(double amplitude) {
     setAmplitudes(nCopies(amplitude, nOfOutputs));
   }
@@ -123,6 +164,7 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
           "Biases size is wrong: %d expected, %d found".formatted(nOfOutputs, biases.length));
     }
     System.arraycopy(biases, 0, this.biases, 0, nOfOutputs);
+    updateDenormalized();
   }
 
   public void setFrequencies(double[] frequencies) {
@@ -131,6 +173,7 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
           "Frequencies size is wrong: %d expected, %d found".formatted(nOfOutputs, frequencies.length));
     }
     System.arraycopy(frequencies, 0, this.frequencies, 0, nOfOutputs);
+    updateDenormalized();
   }
 
   public void setBiases(double bias) {
@@ -163,6 +206,7 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
     if (biasRange.extent() > 0) {
       System.arraycopy(params, i, biases, 0, nOfOutputs);
     }
+    updateDenormalized();
   }
 
   public void setPhases(double phase) {
@@ -175,19 +219,22 @@ public class Sinusoidal implements NumericalStatelessSystem, NumericalParametriz
           "Phases size is wrong: %d expected, %d found".formatted(nOfOutputs, phases.length));
     }
     System.arraycopy(phases, 0, this.phases, 0, nOfOutputs);
+    updateDenormalized();
   }
 
   @Override
   public double[] step(double t, double[] input) {
-    return IntStream.range(0, nOfOutputs)
-        .mapToDouble(i -> {
-          double a = amplitudeRange.denormalize(PARAM_RANGE.normalize(amplitudes[i]));
-          double p = phaseRange.denormalize(PARAM_RANGE.normalize(phases[i]));
-          double f = frequencyRange.denormalize(PARAM_RANGE.normalize(frequencies[i]));
-          double b = biasRange.denormalize(PARAM_RANGE.normalize(biases[i]));
-          return a * Math.sin(2d * Math.PI * f * t + p) + b;
-        })
-        .toArray();
+    double[] output = new double[nOfOutputs];
+    step(t, input, output);
+    return output;
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    for (int i = 0; i < nOfOutputs; i = i + 1) {
+      output[i] = denormalizedAmplitudes[i] * Math.sin(angularFrequencies[i] * t + denormalizedPhases[i])
+          + denormalizedBiases[i];
+    }
   }
 
   @Override
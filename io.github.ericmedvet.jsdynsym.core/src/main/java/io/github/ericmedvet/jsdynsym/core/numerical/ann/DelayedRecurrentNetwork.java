@@ -23,8 +23,7 @@ package io.github.ericmedvet.jsdynsym.core.numerical.ann;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
 import io.github.ericmedvet.jsdynsym.core.numerical.NumericalDynamicalSystem;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 public class DelayedRecurrentNetwork
     implements NumericalDynamicalSystem<DelayedRecurrentNetwork.State>,
@@ -36,10 +35,27 @@ public class DelayedRecurrentNetwork
   private final DoubleRange timeRange;
   private final double threshold;
   private final double timeResolution;
-  private final Map<Coord, Connection> connections;
+  // connection from neuron i to neuron j is at i * nOfNeurons + j
+  private final double[] weights;
+  private final double[] delays;
+  private final double[] durations;
+  // connections that can generate pulses, in compressed sparse row format (rows are source neurons), with
+  // denormalized delay and time span of their pulses: the span goes from the first to the last time slot if slots
+  // are even, or is the plain duration otherwise
+  private final int[] sparseRowStarts;
+  private final int[] sparseToIs;
+  private final double[] sparseWeights;
+  private final double[] sparseDelays;
+  private final double[] sparseSpans;
   private final double[] biases;
   private final double[] outValues;
-  private final double[][] inValues;
+  // input values are, for each neuron, the prefix sums of a difference array over time slots
+  private final double[][] inDiffs;
+  private final double[] inSums;
+  private final int nOfTimeSlots;
+  // if false, the last time slot is shorter than the others
+  private final boolean evenTimeSlots;
+  private int sumTI;
 
   public DelayedRecurrentNetwork(
       MultiLayerPerceptron.ActivationFunction activationFunction,
@@ -56,19 +72,40 @@ public class DelayedRecurrentNetwork
     this.timeRange = timeRange;
     this.threshold = threshold;
     this.timeResolution = timeResolution;
-    connections = new HashMap<>();
     int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    weights = new double[nOfNeurons * nOfNeurons];
+    delays = new double[nOfNeurons * nOfNeurons];
+    durations = new double[nOfNeurons * nOfNeurons];
+    sparseRowStarts = new int[nOfNeurons + 1];
+    sparseToIs = new int[nOfNeurons * nOfNeurons];
+    sparseWeights = new double[nOfNeurons * nOfNeurons];
+    sparseDelays = new double[nOfNeurons * nOfNeurons];
+    sparseSpans = new double[nOfNeurons * nOfNeurons];
     biases = new double[nOfNeurons];
     outValues = new double[nOfNeurons];
-    inValues = new double[nOfNeurons][];
+    nOfTimeSlots = (int) Math.ceil(timeRange.max() / timeResolution);
+    evenTimeSlots = nOfTimeSlots * timeResolution == timeRange.max();
+    inDiffs = new double[nOfNeurons][nOfTimeSlots];
+    inSums = new double[nOfNeurons];
     reset();
   }
 
-  private record Connection(double weight, double delay, double duration) {}
+  public record State(double[] outValues) {}
 
-  private record Coord(int fromId, int toId) {}
+  public static final class Snapshot {
+    private final double[][] inDiffs;
+    private final double[] inSums;
+    private final double[] outValues;
+    private final int nOfTimeSlots;
+    private int sumTI;
 
-  public record State(double[] outValues) {}
+    private Snapshot(int nOfNeurons, int nOfTimeSlots) {
+      this.nOfTimeSlots = nOfTimeSlots;
+      inDiffs = new double[nOfNeurons][nOfTimeSlots];
+      inSums = new double[nOfNeurons];
+      outValues = new double[nOfNeurons];
+    }
+  }
 
   @Override
   public double[] getParams() {
@@ -79,14 +116,11 @@ public class DelayedRecurrentNetwork
       params[c] = biases[i];
       c = c + 1;
     }
-    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        Connection connection = connections.get(new Coord(fromI, toI));
-        params[c] = connection.weight();
-        params[c + 1] = connection.delay();
-        params[c + 2] = connection.duration();
-        c = c + 3;
-      }
+    for (int ci = 0; ci < nOfNeurons * nOfNeurons; ci = ci + 1) {
+      params[c] = weights[ci];
+      params[c + 1] = delays[ci];
+      params[c + 2] = durations[ci];
+      c = c + 3;
     }
     return params;
   }
@@ -103,12 +137,13 @@ public class DelayedRecurrentNetwork
       biases[i] = params[c];
       c = c + 1;
     }
-    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        connections.put(new Coord(fromI, toI), new Connection(params[c], params[c + 1], params[c + 2]));
-        c = c + 3;
-      }
+    for (int ci = 0; ci < nOfNeurons * nOfNeurons; ci = ci + 1) {
+      weights[ci] = params[c];
+      delays[ci] = params[c + 1];
+      durations[ci] = params[c + 2];
+      c = c + 3;
     }
+    updatePulses();
   }
 
   @Override
@@ -119,44 +154,76 @@ public class DelayedRecurrentNetwork
   @Override
   public void reset() {
     int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
-    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      inValues[fromI] = new double[(int) Math.ceil(timeRange.max() / timeResolution)];
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        connections.put(new Coord(fromI, toI), new Connection(0, 0, 0));
-      }
+    for (int i = 0; i < nOfNeurons; i = i + 1) {
+      Arrays.fill(inDiffs[i], 0d);
+    }
+    Arrays.fill(inSums, 0d);
+    Arrays.fill(outValues, 0d);
+    sumTI = -1;
+  }
+
+  public Snapshot snapshot() {
+    Snapshot snapshot = new Snapshot(inSums.length, nOfTimeSlots);
+    snapshot(snapshot);
+    return snapshot;
+  }
+
+  public void snapshot(Snapshot snapshot) {
+    checkSnapshot(snapshot);
+    for (int i = 0; i < inDiffs.length; i = i + 1) {
+      System.arraycopy(inDiffs[i], 0, snapshot.inDiffs[i], 0, nOfTimeSlots);
+    }
+    System.arraycopy(inSums, 0, snapshot.inSums, 0, inSums.length);
+    System.arraycopy(outValues, 0, snapshot.outValues, 0, outValues.length);
+    snapshot.sumTI = sumTI;
+  }
+
+  public void restore(Snapshot snapshot) {
+    checkSnapshot(snapshot);
+    for (int i = 0; i < inDiffs.length; i = i + 1) {
+      System.arraycopy(snapshot.inDiffs[i], 0, inDiffs[i], 0, nOfTimeSlots);
+    }
+    System.arraycopy(snapshot.inSums, 0, inSums, 0, inSums.length);
+    System.arraycopy(snapshot.outValues, 0, outValues, 0, outValues.length);
+    sumTI = snapshot.sumTI;
+  }
+
+  private void checkSnapshot(Snapshot snapshot) {
+    if (snapshot.inSums.length != inSums.length || snapshot.nOfTimeSlots != nOfTimeSlots) {
+      throw new IllegalArgumentException("Incompatible snapshot: %d neurons and %d time slots expected, %d and %d found"
+          .formatted(inSums.length, nOfTimeSlots, snapshot.inSums.length, snapshot.nOfTimeSlots));
     }
   }
 
   @Override
   public double[] step(double t, double[] input) {
+    double[] output = new double[nOfOutputs];
+    step(t, input, output);
+    return output;
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
     // compute current time index
     int currentTI = timeIndex(t);
+    moveSumsTo(currentTI);
     // add inputs
     for (int i = 0; i < nOfInputs; i = i + 1) {
       if (Math.abs(input[i]) > threshold) {
-        inValues[i][currentTI] = inValues[i][currentTI] + input[i];
+        addToSlots(i, currentTI, currentTI, input[i]);
       }
     }
     // compute neuron values
     int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
     for (int i = 0; i < nOfNeurons; i = i + 1) {
-      outValues[i] = activationFunction.applyAsDouble(biases[i] + inValues[i][currentTI]);
+      outValues[i] = activationFunction.applyAsDouble(biases[i] + inSums[i]);
     }
     // generate new pulses
     for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
-      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
-        Connection connection = connections.get(new Coord(fromI, toI));
-        double pulseValue = outValues[fromI] * connection.weight();
+      for (int si = sparseRowStarts[fromI]; si < sparseRowStarts[fromI + 1]; si = si + 1) {
+        double pulseValue = outValues[fromI] * sparseWeights[si];
         if (Math.abs(pulseValue) > threshold) {
-          double delay = timeRange.denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(connection.delay()));
-          double duration = new DoubleRange(delay, timeRange.max())
-              .denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(connection.duration()));
-          for (double futureT = t + delay;
-              futureT <= t + delay + duration;
-              futureT = futureT + timeResolution) {
-            int futureTI = timeIndex(futureT);
-            inValues[toI][futureTI] = inValues[toI][futureTI] + pulseValue;
-          }
+          schedule(sparseToIs[si], t + sparseDelays[si], t + sparseDelays[si] + sparseSpans[si], pulseValue);
         }
       }
     }
@@ -166,12 +233,14 @@ public class DelayedRecurrentNetwork
       previousTI = timeIndex(timeRange.max());
     }
     for (int i = 0; i < nOfInputs; i = i + 1) {
-      inValues[i][previousTI] = 0;
+      double previousValue = inSums[i];
+      for (int ti = previousTI + 1; ti <= sumTI; ti = ti + 1) {
+        previousValue = previousValue - inDiffs[i][ti];
+      }
+      addToSlots(i, previousTI, previousTI, -previousValue);
     }
     // read outputs
-    double[] outputs = new double[nOfOutputs];
-    System.arraycopy(outValues, nOfInputs + nOfInnerNeurons, outputs, 0, outputs.length);
-    return outputs;
+    System.arraycopy(outValues, nOfInputs + nOfInnerNeurons, output, 0, output.length);
   }
 
   @Override
@@ -184,10 +253,86 @@ public class DelayedRecurrentNetwork
     return nOfOutputs;
   }
 
+  private void addToSlots(int i, int fromTI, int toTI, double value) {
+    inDiffs[i][fromTI] = inDiffs[i][fromTI] + value;
+    if (fromTI <= sumTI) {
+      inSums[i] = inSums[i] + value;
+    }
+    if (toTI + 1 < nOfTimeSlots) {
+      inDiffs[i][toTI + 1] = inDiffs[i][toTI + 1] - value;
+      if (toTI + 1 <= sumTI) {
+        inSums[i] = inSums[i] - value;
+      }
+    }
+  }
+
+  private void moveSumsTo(int ti) {
+    int fromTI = sumTI + 1;
+    if (ti < sumTI) {
+      Arrays.fill(inSums, 0d);
+      fromTI = 0;
+    }
+    for (int i = 0; i < inSums.length; i = i + 1) {
+      for (int sTI = fromTI; sTI <= ti; sTI = sTI + 1) {
+        inSums[i] = inSums[i] + inDiffs[i][sTI];
+      }
+    }
+    sumTI = ti;
+  }
+
+  private void schedule(int i, double fromT, double toT, double value) {
+    if (!evenTimeSlots) {
+      // pulses do not cover contiguous slots, as a time step may skip the shorter last slot
+      for (double futureT = fromT; futureT <= toT; futureT = futureT + timeResolution) {
+        int futureTI = timeIndex(futureT);
+        addToSlots(i, futureTI, futureTI, value);
+      }
+      return;
+    }
+    int fromTI = timeIndex(fromT);
+    int toTI = timeIndex(toT);
+    int nOfWraps = (int) (Math.floor(toT / timeRange.max()) - Math.floor(fromT / timeRange.max()));
+    if (nOfWraps == 0) {
+      addToSlots(i, fromTI, toTI, value);
+    } else {
+      addToSlots(i, fromTI, nOfTimeSlots - 1, value);
+      addToSlots(i, 0, toTI, value);
+      if (nOfWraps > 1) {
+        addToSlots(i, 0, nOfTimeSlots - 1, value * (nOfWraps - 1));
+      }
+    }
+  }
+
   private int timeIndex(double t) {
     return (int) Math.floor((t % timeRange.max()) / timeResolution);
   }
 
+  private void updatePulses() {
+    // keep only connections whose pulses can exceed the threshold, given the largest activation magnitude
+    DoubleRange outRange = activationFunction.getDomain();
+    double maxAbsOutValue = Math.max(Math.abs(outRange.min()), Math.abs(outRange.max()));
+    int nOfNeurons = nOfInputs + nOfOutputs + nOfInnerNeurons;
+    int si = 0;
+    for (int fromI = 0; fromI < nOfNeurons; fromI = fromI + 1) {
+      sparseRowStarts[fromI] = si;
+      for (int toI = 0; toI < nOfNeurons; toI = toI + 1) {
+        int ci = fromI * nOfNeurons + toI;
+        if (Math.abs(weights[ci]) * maxAbsOutValue > threshold) {
+          double delay = timeRange.denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(delays[ci]));
+          double duration = new DoubleRange(delay, timeRange.max())
+              .denormalize(DoubleRange.SYMMETRIC_UNIT.normalize(durations[ci]));
+          sparseToIs[si] = toI;
+          sparseWeights[si] = weights[ci];
+          sparseDelays[si] = delay;
+          sparseSpans[si] =
+              evenTimeSlots ? Math.floor(duration / timeResolution) * timeResolution : duration;
+          si = si + 1;
+        }
+      }
+    }
+    sparseRowStarts[nOfNeurons] = si;
+  }
+
   @Override
   public String toString() {
     return "DRN-%s-%d>(%d)>%d"
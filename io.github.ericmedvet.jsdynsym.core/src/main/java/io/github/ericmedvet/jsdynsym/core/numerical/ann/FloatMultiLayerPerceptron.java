@@ -0,0 +1,94 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+public class FloatMultiLayerPerceptron extends ReducedPrecisionMultiLayerPerceptron {
+
+  private final float[] weights;
+  // scratch buffers are per thread, so that the same MLP can be used concurrently
+  private final ThreadLocal<float[][]> activationValues;
+
+  public FloatMultiLayerPerceptron(MultiLayerPerceptron mlp) {
+    super(mlp);
+    double[] params = mlp.getParams();
+    weights = new float[params.length];
+    for (int w = 0; w < params.length; w++) {
+      weights[w] = (float) params[w];
+    }
+    activationValues = ThreadLocal.withInitial(() -> {
+      float[][] values = new float[neurons.length - 1][];
+      for (int i = 0; i < neurons.length - 1; i++) {
+        values[i] = new float[neurons[i]];
+      }
+      return values;
+    });
+  }
+
+  @Override
+  public double[] compute(double... input) {
+    double[] output = new double[neurons[neurons.length - 1]];
+    compute(input, output);
+    return output;
+  }
+
+  @Override
+  public void compute(double[] input, double[] output) {
+    if (input.length != neurons[0]) {
+      throw new IllegalArgumentException(
+          String.format("Expected input length is %d: found %d", neurons[0], input.length));
+    }
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(String.format(
+          "Expected output length is %d: found %d", neurons[neurons.length - 1], output.length));
+    }
+    float[][] values = activationValues.get();
+    float[] previousValues = values[0];
+    for (int j = 0; j < neurons[0]; j++) {
+      previousValues[j] = (float) activationFunction.applyAsDouble(input[j]);
+    }
+    int c = 0;
+    for (int i = 1; i < neurons.length - 1; i++) {
+      float[] currentValues = values[i];
+      for (int j = 0; j < neurons[i]; j++) {
+        currentValues[j] = (float) activationFunction.applyAsDouble(dot(previousValues, neurons[i - 1], c));
+        c = c + neurons[i - 1] + 1;
+      }
+      previousValues = currentValues;
+    }
+    for (int j = 0; j < neurons[neurons.length - 1]; j++) {
+      output[j] = activationFunction.applyAsDouble(dot(previousValues, neurons[neurons.length - 2], c));
+      c = c + neurons[neurons.length - 2] + 1;
+    }
+  }
+
+  private float dot(float[] values, int n, int offset) {
+    float sum = weights[offset]; // set the bias
+    for (int k = 0; k < n; k++) {
+      sum = sum + values[k] * weights[offset + 1 + k];
+    }
+    return sum;
+  }
+
+  @Override
+  protected String precisionName() {
+    return "f32";
+  }
+}
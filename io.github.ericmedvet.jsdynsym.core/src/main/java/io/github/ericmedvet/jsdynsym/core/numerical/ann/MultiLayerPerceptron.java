@@ -23,32 +23,47 @@ package io.github.ericmedvet.jsdynsym.core.numerical.ann;
 import io.github.ericmedvet.jnb.datastructure.DoubleRange;
 import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
 import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import java.nio.DoubleBuffer;
 import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
 import java.util.stream.Collectors;
 
 public class MultiLayerPerceptron implements MultivariateRealFunction, NumericalParametrized<MultiLayerPerceptron> {
 
+  private static final int BATCH_BLOCK_SIZE = 64;
+
   protected final ActivationFunction activationFunction;
-  protected final double[][][] weights;
+  protected double[] weights;
   protected final int[] neurons;
+  // scratch buffers are per thread, so that the same MLP can be used concurrently
+  protected final ThreadLocal<double[][]> activationValues;
 
   public MultiLayerPerceptron(ActivationFunction activationFunction, double[][][] weights, int[] neurons) {
+    this(activationFunction, flat(weights, neurons), neurons);
+  }
+
+  protected MultiLayerPerceptron(ActivationFunction activationFunction, double[] weights, int[] neurons) {
+    if (weights.length != countWeights(neurons)) {
+      throw new IllegalArgumentException(String.format(
+          "Wrong number of weights: %d expected, %d found", countWeights(neurons), weights.length));
+    }
     this.activationFunction = activationFunction;
     this.weights = weights;
     this.neurons = neurons;
-    if (flat(weights, neurons).length != countWeights(neurons)) {
-      throw new IllegalArgumentException(String.format(
-          "Wrong number of weights: %d expected, %d found",
-          countWeights(neurons), flat(weights, neurons).length));
-    }
+    activationValues = ThreadLocal.withInitial(() -> {
+      double[][] values = new double[neurons.length - 1][];
+      for (int i = 0; i < neurons.length - 1; i++) {
+        values[i] = new double[neurons[i]];
+      }
+      return values;
+    });
   }
 
   public MultiLayerPerceptron(
       ActivationFunction activationFunction, int nOfInput, int[] innerNeurons, int nOfOutput, double[] weights) {
     this(
         activationFunction,
-        unflat(weights, countNeurons(nOfInput, innerNeurons, nOfOutput)),
+        Arrays.copyOf(weights, weights.length),
         countNeurons(nOfInput, innerNeurons, nOfOutput));
   }
 
@@ -56,10 +71,8 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
       ActivationFunction activationFunction, int nOfInput, int[] innerNeurons, int nOfOutput) {
     this(
         activationFunction,
-        nOfInput,
-        innerNeurons,
-        nOfOutput,
-        new double[countWeights(countNeurons(nOfInput, innerNeurons, nOfOutput))]);
+        new double[countWeights(countNeurons(nOfInput, innerNeurons, nOfOutput))],
+        countNeurons(nOfInput, innerNeurons, nOfOutput));
   }
 
   public enum ActivationFunction implements DoubleUnaryOperator {
@@ -68,7 +81,13 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
     SIN(Math::sin, DoubleRange.SYMMETRIC_UNIT),
     TANH(Math::tanh, DoubleRange.SYMMETRIC_UNIT),
     SIGN(Math::signum, DoubleRange.SYMMETRIC_UNIT),
-    IDENTITY(x -> x, DoubleRange.UNBOUNDED);
+    IDENTITY(x -> x, DoubleRange.UNBOUNDED),
+    /** Rational approximation of {@link #TANH}, with absolute error below 1e-4. */
+    FAST_TANH(ActivationFunction::fastTanh, DoubleRange.SYMMETRIC_UNIT),
+    /** Approximation of {@link #SIGMOID} based on {@link #FAST_TANH}, with absolute error below 5e-5. */
+    FAST_SIGMOID(x -> 0.5d + 0.5d * fastTanh(0.5d * x), DoubleRange.UNIT);
+
+    private static final double FAST_TANH_SATURATION = 4.97d;
 
     private final DoubleUnaryOperator f;
     private final DoubleRange domain;
@@ -90,6 +109,21 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
     public DoubleUnaryOperator getF() {
       return f;
     }
+
+    private static double fastTanh(double x) {
+      if (x > FAST_TANH_SATURATION) {
+        return 1d;
+      }
+      if (x < -FAST_TANH_SATURATION) {
+        return -1d;
+      }
+      // Lambert's continued fraction truncated at the 7th order
+      double x2 = x * x;
+      double y = x
+          * (135135d + x2 * (17325d + x2 * (378d + x2)))
+          / (135135d + x2 * (62370d + x2 * (3150d + 28d * x2)));
+      return Math.max(-1d, Math.min(1d, y));
+    }
   }
 
   public static int[] countNeurons(int nOfInput, int[] innerNeurons, int nOfOutput) {
@@ -143,39 +177,154 @@ public class MultiLayerPerceptron implements MultivariateRealFunction, Numerical
   }
 
   @Override
-  public double[] compute(double[] input) {
+  public double[] compute(double... input) {
+    double[] output = new double[neurons[neurons.length - 1]];
+    compute(input, output);
+    return output;
+  }
+
+  /**
+   * Computes the output in {@code output}, without allocating. Inner activations are kept in per-thread scratch
+   * buffers: concurrent calls on the same instance are hence safe.
+   */
+  public void compute(double[] input, double[] output) {
     if (input.length != neurons[0]) {
       throw new IllegalArgumentException(
           String.format("Expected input length is %d: found %d", neurons[0], input.length));
     }
-    double[][] activationValues = new double[neurons.length][];
-    activationValues[0] = Arrays.stream(input).map(activationFunction).toArray();
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(String.format(
+          "Expected output length is %d: found %d", neurons[neurons.length - 1], output.length));
+    }
+    double[][] values = activationValues.get();
+    double[] previousValues = values[0];
+    for (int j = 0; j < neurons[0]; j++) {
+      previousValues[j] = activationFunction.applyAsDouble(input[j]);
+    }
+    int c = 0;
     for (int i = 1; i < neurons.length; i++) {
-      activationValues[i] = new double[neurons[i]];
+      double[] currentValues = (i < neurons.length - 1) ? values[i] : output;
       for (int j = 0; j < neurons[i]; j++) {
-        double sum = weights[i - 1][j][0]; // set the bias
-        for (int k = 1; k < neurons[i - 1] + 1; k++) {
-          sum = sum + activationValues[i - 1][k - 1] * weights[i - 1][j][k];
+        double sum = weights[c]; // set the bias
+        c = c + 1;
+        for (int k = 0; k < neurons[i - 1]; k++) {
+          sum = sum + previousValues[k] * weights[c];
+          c = c + 1;
         }
-        activationValues[i][j] = activationFunction.applyAsDouble(sum);
+        currentValues[j] = activationFunction.applyAsDouble(sum);
       }
+      previousValues = currentValues;
     }
-    return activationValues[neurons.length - 1];
+  }
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    compute(input, output);
+  }
+
+  public double[][] computeBatch(double[][] inputs) {
+    double[] flatInputs = new double[inputs.length * neurons[0]];
+    for (int r = 0; r < inputs.length; r++) {
+      if (inputs[r].length != neurons[0]) {
+        throw new IllegalArgumentException(String.format(
+            "Expected input length is %d: found %d at row %d", neurons[0], inputs[r].length, r));
+      }
+      System.arraycopy(inputs[r], 0, flatInputs, r * neurons[0], neurons[0]);
+    }
+    double[] flatOutputs = computeBatch(flatInputs, inputs.length);
+    int nOfOutputs = neurons[neurons.length - 1];
+    double[][] outputs = new double[inputs.length][];
+    for (int r = 0; r < inputs.length; r++) {
+      outputs[r] = Arrays.copyOfRange(flatOutputs, r * nOfOutputs, (r + 1) * nOfOutputs);
+    }
+    return outputs;
+  }
+
+  public double[] computeBatch(double[] inputs, int nOfRows) {
+    if (inputs.length != nOfRows * neurons[0]) {
+      throw new IllegalArgumentException(String.format(
+          "Expected inputs length is %d (%d rows of %d): found %d",
+          nOfRows * neurons[0], nOfRows, neurons[0], inputs.length));
+    }
+    double[] previousValues = new double[inputs.length];
+    for (int j = 0; j < inputs.length; j++) {
+      previousValues[j] = activationFunction.applyAsDouble(inputs[j]);
+    }
+    int c = 0;
+    for (int i = 1; i < neurons.length; i++) {
+      int nOfPrevious = neurons[i - 1];
+      int nOfCurrent = neurons[i];
+      double[] currentValues = new double[nOfRows * nOfCurrent];
+      // blocks of rows share each weight row while it is in cache
+      for (int blockStart = 0; blockStart < nOfRows; blockStart = blockStart + BATCH_BLOCK_SIZE) {
+        int blockEnd = Math.min(nOfRows, blockStart + BATCH_BLOCK_SIZE);
+        for (int j = 0; j < nOfCurrent; j++) {
+          int wOffset = c + j * (nOfPrevious + 1);
+          int r = blockStart;
+          // four rows at a time, each with its own accumulator: summation order is the one of compute()
+          for (; r + 3 < blockEnd; r = r + 4) {
+            int offset0 = r * nOfPrevious;
+            int offset1 = offset0 + nOfPrevious;
+            int offset2 = offset1 + nOfPrevious;
+            int offset3 = offset2 + nOfPrevious;
+            double sum0 = weights[wOffset]; // set the bias
+            double sum1 = sum0;
+            double sum2 = sum0;
+            double sum3 = sum0;
+            for (int k = 0; k < nOfPrevious; k++) {
+              double w = weights[wOffset + 1 + k];
+              sum0 = sum0 + previousValues[offset0 + k] * w;
+              sum1 = sum1 + previousValues[offset1 + k] * w;
+              sum2 = sum2 + previousValues[offset2 + k] * w;
+              sum3 = sum3 + previousValues[offset3 + k] * w;
+            }
+            currentValues[r * nOfCurrent + j] = activationFunction.applyAsDouble(sum0);
+            currentValues[(r + 1) * nOfCurrent + j] = activationFunction.applyAsDouble(sum1);
+            currentValues[(r + 2) * nOfCurrent + j] = activationFunction.applyAsDouble(sum2);
+            currentValues[(r + 3) * nOfCurrent + j] = activationFunction.applyAsDouble(sum3);
+          }
+          for (; r < blockEnd; r++) {
+            int offset = r * nOfPrevious;
+            double sum = weights[wOffset]; // set the bias
+            for (int k = 0; k < nOfPrevious; k++) {
+              sum = sum + previousValues[offset + k] * weights[wOffset + 1 + k];
+            }
+            currentValues[r * nOfCurrent + j] = activationFunction.applyAsDouble(sum);
+          }
+        }
+      }
+      c = c + nOfCurrent * (nOfPrevious + 1);
+      previousValues = currentValues;
+    }
+    return previousValues;
   }
 
   @Override
   public double[] getParams() {
-    return flat(weights, neurons);
+    return Arrays.copyOf(weights, weights.length);
+  }
+
+  /** Uses {@code params} as the backing store, without copying: later changes to the array affect this MLP. */
+  public void adoptParams(double[] params) {
+    if (params.length != weights.length) {
+      throw new IllegalArgumentException(
+          String.format("Wrong number of params: %d expected, %d found", weights.length, params.length));
+    }
+    weights = params;
+  }
+
+  /** Returns a read-only view of the current backing store, valid until the next {@link #adoptParams}. */
+  public DoubleBuffer paramsView() {
+    return DoubleBuffer.wrap(weights).asReadOnlyBuffer();
   }
 
   @Override
   public void setParams(double[] params) {
-    double[][][] newWeights = MultiLayerPerceptron.unflat(params, neurons);
-    for (int l = 0; l < newWeights.length; l++) {
-      for (int s = 0; s < newWeights[l].length; s++) {
-        System.arraycopy(newWeights[l][s], 0, weights[l][s], 0, newWeights[l][s].length);
-      }
+    if (params.length != weights.length) {
+      throw new IllegalArgumentException(
+          String.format("Wrong number of params: %d expected, %d found", weights.length, params.length));
     }
+    System.arraycopy(params, 0, weights, 0, weights.length);
   }
 
   @Override
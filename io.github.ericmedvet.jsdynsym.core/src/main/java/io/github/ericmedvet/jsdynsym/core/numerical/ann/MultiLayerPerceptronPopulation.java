@@ -0,0 +1,215 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jnb.datastructure.NumericalParametrized;
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class MultiLayerPerceptronPopulation {
+
+  private final MultiLayerPerceptron.ActivationFunction activationFunction;
+  private final int[] neurons;
+  private final int size;
+  // weight w of individual p is at w * size + p, with w following the layout of MultiLayerPerceptron.flat()
+  private final double[] weights;
+  // value of neuron j of individual p is at j * size + p; scratch buffers are per thread, as in MultiLayerPerceptron
+  private final ThreadLocal<double[][]> activationValues;
+  private final List<Individual> individuals;
+
+  public MultiLayerPerceptronPopulation(
+      MultiLayerPerceptron.ActivationFunction activationFunction,
+      int nOfInput,
+      int[] innerNeurons,
+      int nOfOutput,
+      int size) {
+    this.activationFunction = activationFunction;
+    this.size = size;
+    neurons = MultiLayerPerceptron.countNeurons(nOfInput, innerNeurons, nOfOutput);
+    weights = new double[MultiLayerPerceptron.countWeights(neurons) * size];
+    activationValues = ThreadLocal.withInitial(() -> {
+      double[][] values = new double[neurons.length][];
+      for (int i = 0; i < neurons.length; i++) {
+        values[i] = new double[neurons[i] * size];
+      }
+      return values;
+    });
+    individuals = IntStream.range(0, size).mapToObj(Individual::new).toList();
+  }
+
+  public class Individual implements MultivariateRealFunction, NumericalParametrized<Individual> {
+    private final int index;
+
+    private Individual(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public double[] compute(double... input) {
+      if (input.length != neurons[0]) {
+        throw new IllegalArgumentException(
+            String.format("Expected input length is %d: found %d", neurons[0], input.length));
+      }
+      double[] previousValues = new double[neurons[0]];
+      for (int j = 0; j < neurons[0]; j++) {
+        previousValues[j] = activationFunction.applyAsDouble(input[j]);
+      }
+      int c = 0;
+      for (int i = 1; i < neurons.length; i++) {
+        double[] currentValues = new double[neurons[i]];
+        for (int j = 0; j < neurons[i]; j++) {
+          double sum = weights[c * size + index]; // set the bias
+          c = c + 1;
+          for (int k = 0; k < neurons[i - 1]; k++) {
+            sum = sum + previousValues[k] * weights[c * size + index];
+            c = c + 1;
+          }
+          currentValues[j] = activationFunction.applyAsDouble(sum);
+        }
+        previousValues = currentValues;
+      }
+      return previousValues;
+    }
+
+    @Override
+    public double[] getParams() {
+      double[] params = new double[weights.length / size];
+      for (int w = 0; w < params.length; w++) {
+        params[w] = weights[w * size + index];
+      }
+      return params;
+    }
+
+    public int index() {
+      return index;
+    }
+
+    @Override
+    public void setParams(double[] params) {
+      if (params.length != weights.length / size) {
+        throw new IllegalArgumentException(String.format(
+            "Wrong number of params: %d expected, %d found", weights.length / size, params.length));
+      }
+      for (int w = 0; w < params.length; w++) {
+        weights[w * size + index] = params[w];
+      }
+    }
+
+    @Override
+    public int nOfInputs() {
+      return neurons[0];
+    }
+
+    @Override
+    public int nOfOutputs() {
+      return neurons[neurons.length - 1];
+    }
+
+    @Override
+    public String toString() {
+      return "%s[%d]".formatted(MultiLayerPerceptronPopulation.this, index);
+    }
+  }
+
+  public double[][] compute(double[][] inputs) {
+    double[][] outputs = new double[size][neurons[neurons.length - 1]];
+    compute(inputs, outputs);
+    return outputs;
+  }
+
+  public void compute(double[][] inputs, double[][] outputs) {
+    if (inputs.length != size || outputs.length != size) {
+      throw new IllegalArgumentException(String.format(
+          "Expected %d inputs and outputs: found %d and %d", size, inputs.length, outputs.length));
+    }
+    double[][] values = activationValues.get();
+    double[] inputValues = values[0];
+    for (int p = 0; p < size; p++) {
+      if (inputs[p].length != neurons[0]) {
+        throw new IllegalArgumentException(String.format(
+            "Expected input length is %d: found %d for individual %d", neurons[0], inputs[p].length, p));
+      }
+      for (int k = 0; k < neurons[0]; k++) {
+        inputValues[k * size + p] = activationFunction.applyAsDouble(inputs[p][k]);
+      }
+    }
+    int c = 0;
+    for (int i = 1; i < neurons.length; i++) {
+      double[] previousValues = values[i - 1];
+      double[] currentValues = values[i];
+      for (int j = 0; j < neurons[i]; j++) {
+        int jOffset = j * size;
+        // innermost loops run across individuals: same summation order of MultiLayerPerceptron.compute()
+        System.arraycopy(weights, c * size, currentValues, jOffset, size); // set the bias
+        c = c + 1;
+        for (int k = 0; k < neurons[i - 1]; k++) {
+          multiplyAdd(currentValues, jOffset, previousValues, k * size, weights, c * size, size);
+          c = c + 1;
+        }
+        for (int p = 0; p < size; p++) {
+          currentValues[jOffset + p] = activationFunction.applyAsDouble(currentValues[jOffset + p]);
+        }
+      }
+    }
+    double[] outputValues = values[neurons.length - 1];
+    for (int p = 0; p < size; p++) {
+      if (outputs[p].length != neurons[neurons.length - 1]) {
+        throw new IllegalArgumentException(String.format(
+            "Expected output length is %d: found %d for individual %d",
+            neurons[neurons.length - 1], outputs[p].length, p));
+      }
+      for (int j = 0; j < neurons[neurons.length - 1]; j++) {
+        outputs[p][j] = outputValues[j * size + p];
+      }
+    }
+  }
+
+  private static void multiplyAdd(
+      double[] acc, int accOffset, double[] xs, int xsOffset, double[] ws, int wsOffset, int n) {
+    for (int i = 0; i < n; i++) {
+      acc[accOffset + i] = acc[accOffset + i] + xs[xsOffset + i] * ws[wsOffset + i];
+    }
+  }
+
+  public Individual get(int index) {
+    return individuals.get(index);
+  }
+
+  public List<Individual> individuals() {
+    return individuals;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public String toString() {
+    return "MLPs-%d-%s-%s"
+        .formatted(
+            size,
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">")));
+  }
+}
@@ -0,0 +1,86 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-core
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+
+package io.github.ericmedvet.jsdynsym.core.numerical.ann;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.MultivariateRealFunction;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+public abstract class ReducedPrecisionMultiLayerPerceptron implements MultivariateRealFunction {
+
+  protected final MultiLayerPerceptron.ActivationFunction activationFunction;
+  protected final int[] neurons;
+
+  protected ReducedPrecisionMultiLayerPerceptron(MultiLayerPerceptron mlp) {
+    activationFunction = mlp.activationFunction;
+    neurons = Arrays.copyOf(mlp.neurons, mlp.neurons.length);
+  }
+
+  /**
+   * Computes the output in {@code output}, without allocating. Implementations keep their scratch buffers per thread:
+   * concurrent calls on the same instance are hence safe.
+   */
+  public abstract void compute(double[] input, double[] output);
+
+  protected abstract String precisionName();
+
+  @Override
+  public void step(double t, double[] input, double[] output) {
+    compute(input, output);
+  }
+
+  public double maxDeviation(MultivariateRealFunction reference, Collection<double[]> calibrationInputs) {
+    if (reference.nOfInputs() != nOfInputs() || reference.nOfOutputs() != nOfOutputs()) {
+      throw new IllegalArgumentException(String.format(
+          "Incompatible reference: %d>%d expected, %d>%d found",
+          nOfInputs(), nOfOutputs(), reference.nOfInputs(), reference.nOfOutputs()));
+    }
+    double max = 0d;
+    for (double[] input : calibrationInputs) {
+      double[] referenceOutput = reference.compute(input);
+      double[] output = compute(input);
+      for (int j = 0; j < output.length; j++) {
+        max = Math.max(max, Math.abs(referenceOutput[j] - output[j]));
+      }
+    }
+    return max;
+  }
+
+  @Override
+  public int nOfInputs() {
+    return neurons[0];
+  }
+
+  @Override
+  public int nOfOutputs() {
+    return neurons[neurons.length - 1];
+  }
+
+  @Override
+  public String toString() {
+    return "MLP[%s]-%s-%s"
+        .formatted(
+            precisionName(),
+            activationFunction.toString().toLowerCase(),
+            Arrays.stream(neurons).mapToObj(Integer::toString).collect(Collectors.joining(">")));
+  }
+}
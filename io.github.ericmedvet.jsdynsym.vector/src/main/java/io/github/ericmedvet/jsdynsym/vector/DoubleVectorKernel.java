@@ -0,0 +1,103 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-vector
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.vector;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+class DoubleVectorKernel {
+
+  private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+  private DoubleVectorKernel() {}
+
+  static void activate(double[] values, int n, MultiLayerPerceptron.ActivationFunction activationFunction) {
+    int bound = SPECIES.loopBound(n);
+    int i = 0;
+    switch (activationFunction) {
+      case IDENTITY -> {
+        return;
+      }
+      case RELU -> {
+        for (; i < bound; i = i + SPECIES.length()) {
+          DoubleVector.fromArray(SPECIES, values, i).max(0d).intoArray(values, i);
+        }
+      }
+      case TANH -> {
+        for (; i < bound; i = i + SPECIES.length()) {
+          DoubleVector.fromArray(SPECIES, values, i)
+              .lanewise(VectorOperators.TANH)
+              .intoArray(values, i);
+        }
+      }
+      case SIN -> {
+        for (; i < bound; i = i + SPECIES.length()) {
+          DoubleVector.fromArray(SPECIES, values, i)
+              .lanewise(VectorOperators.SIN)
+              .intoArray(values, i);
+        }
+      }
+      case SIGMOID -> {
+        DoubleVector ones = DoubleVector.broadcast(SPECIES, 1d);
+        for (; i < bound; i = i + SPECIES.length()) {
+          ones.div(DoubleVector.fromArray(SPECIES, values, i)
+                  .neg()
+                  .lanewise(VectorOperators.EXP)
+                  .add(1d))
+              .intoArray(values, i);
+        }
+      }
+      default -> {
+        // no lanewise counterpart: fully scalar
+      }
+    }
+    for (; i < n; i++) {
+      values[i] = activationFunction.applyAsDouble(values[i]);
+    }
+  }
+
+  static void layer(
+      double[] weights,
+      int offset,
+      double[] inValues,
+      int nOfIn,
+      double[] outValues,
+      int nOfOut,
+      MultiLayerPerceptron.ActivationFunction activationFunction) {
+    int bound = SPECIES.loopBound(nOfIn);
+    for (int j = 0; j < nOfOut; j++) {
+      int rowOffset = offset + j * (nOfIn + 1) + 1;
+      DoubleVector acc = DoubleVector.zero(SPECIES);
+      int k = 0;
+      for (; k < bound; k = k + SPECIES.length()) {
+        acc = DoubleVector.fromArray(SPECIES, inValues, k)
+            .fma(DoubleVector.fromArray(SPECIES, weights, rowOffset + k), acc);
+      }
+      double sum = weights[rowOffset - 1] + acc.reduceLanes(VectorOperators.ADD); // bias plus vectorized part
+      for (; k < nOfIn; k++) {
+        sum = sum + inValues[k] * weights[rowOffset + k];
+      }
+      outValues[j] = sum;
+    }
+    activate(outValues, nOfOut, activationFunction);
+  }
+}
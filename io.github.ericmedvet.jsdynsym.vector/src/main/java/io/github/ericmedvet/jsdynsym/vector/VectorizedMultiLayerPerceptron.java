@@ -0,0 +1,70 @@
+/*-
+ * ========================LICENSE_START=================================
+ * jsdynsym-vector
+ * %%
+ * Copyright (C) 2023 - 2024 Eric Medvet
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * =========================LICENSE_END==================================
+ */
+package io.github.ericmedvet.jsdynsym.vector;
+
+import io.github.ericmedvet.jsdynsym.core.numerical.ann.MultiLayerPerceptron;
+
+public class VectorizedMultiLayerPerceptron extends MultiLayerPerceptron {
+
+  private static final boolean VECTOR_API_AVAILABLE =
+      ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+  public VectorizedMultiLayerPerceptron(
+      ActivationFunction activationFunction, int nOfInput, int[] innerNeurons, int nOfOutput, double[] weights) {
+    super(activationFunction, nOfInput, innerNeurons, nOfOutput, weights);
+  }
+
+  public VectorizedMultiLayerPerceptron(
+      ActivationFunction activationFunction, int nOfInput, int[] innerNeurons, int nOfOutput) {
+    super(activationFunction, nOfInput, innerNeurons, nOfOutput);
+  }
+
+  public static boolean isVectorApiAvailable() {
+    return VECTOR_API_AVAILABLE;
+  }
+
+  @Override
+  public void compute(double[] input, double[] output) {
+    if (!VECTOR_API_AVAILABLE) {
+      super.compute(input, output);
+      return;
+    }
+    if (input.length != neurons[0]) {
+      throw new IllegalArgumentException(
+          String.format("Expected input length is %d: found %d", neurons[0], input.length));
+    }
+    if (output.length != neurons[neurons.length - 1]) {
+      throw new IllegalArgumentException(String.format(
+          "Expected output length is %d: found %d", neurons[neurons.length - 1], output.length));
+    }
+    double[][] values = activationValues.get();
+    double[] previousValues = values[0];
+    System.arraycopy(input, 0, previousValues, 0, input.length);
+    DoubleVectorKernel.activate(previousValues, neurons[0], activationFunction);
+    int c = 0;
+    for (int i = 1; i < neurons.length; i++) {
+      double[] currentValues = (i < neurons.length - 1) ? values[i] : output;
+      DoubleVectorKernel.layer(
+          weights, c, previousValues, neurons[i - 1], currentValues, neurons[i], activationFunction);
+      c = c + neurons[i] * (neurons[i - 1] + 1);
+      previousValues = currentValues;
+    }
+  }
+}